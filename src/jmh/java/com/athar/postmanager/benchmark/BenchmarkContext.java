@@ -0,0 +1,116 @@
+package com.athar.postmanager.benchmark;
+
+import com.athar.postmanager.PostManagerApplication;
+import com.athar.postmanager.model.Comment;
+import com.athar.postmanager.service.CommentService;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Boots the application without a web server against a private in-memory H2 database in MySQL
+ * mode, so benchmarks run the real services, repositories and Hibernate mappings. Data is seeded
+ * with JDBC batches, the same way bulk imports write it.
+ */
+final class BenchmarkContext implements AutoCloseable {
+
+    private static final int SEED_BATCH = 1000;
+
+    private final ConfigurableApplicationContext context;
+    private final Path indexDir;
+
+    private BenchmarkContext(ConfigurableApplicationContext context, Path indexDir) {
+        this.context = context;
+        this.indexDir = indexDir;
+    }
+
+    static BenchmarkContext start(String... overrides) {
+        Path indexDir;
+        try {
+            indexDir = Files.createTempDirectory("post-manager-bench-index");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + UUID.randomUUID()
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--post.search.index-dir=" + indexDir,
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        args.addAll(List.of(overrides));
+
+        SpringApplication application = new SpringApplication(PostManagerApplication.class);
+        application.setWebApplicationType(WebApplicationType.NONE);
+        return new BenchmarkContext(application.run(args.toArray(String[]::new)), indexDir);
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * Inserts {@code count} posts, one second apart, every {@code deletedEvery}-th one soft-deleted.
+     *
+     * @return the id of the first post inserted
+     */
+    long seedPosts(int count, int deletedEvery) {
+        JdbcTemplate jdbc = bean(JdbcTemplate.class);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < count; i++) {
+            Timestamp createdAt = Timestamp.valueOf(base.plusSeconds(i));
+            boolean deleted = deletedEvery > 0 && i % deletedEvery == deletedEvery - 1;
+            batch.add(new Object[]{"Post " + i, "Content of post " + i + " ".repeat(20) + "lorem ipsum",
+                    i % 100, deleted, createdAt, createdAt});
+            if (batch.size() == SEED_BATCH || i == count - 1) {
+                jdbc.batchUpdate("INSERT INTO posts (title, content, likes, deleted, version, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, 0, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        Long first = jdbc.queryForObject("SELECT MIN(id) FROM posts", Long.class);
+        return first == null ? 0 : first;
+    }
+
+    void seedComments(long postId, int count) {
+        CommentService commentService = bean(CommentService.class);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<Comment> batch = new ArrayList<>(CommentService.MAX_BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            Comment comment = new Comment(null, postId, "user" + (i % 50), "Comment number " + i);
+            comment.setCreatedAt(base.plusSeconds(i));
+            batch.add(comment);
+            if (batch.size() == CommentService.MAX_BATCH_SIZE || i == count - 1) {
+                commentService.addComments(batch);
+                batch = new ArrayList<>(CommentService.MAX_BATCH_SIZE);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        try {
+            FileSystemUtils.deleteRecursively(indexDir);
+        } catch (IOException e) {
+            // Temp directory; leave it behind rather than fail the run
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.athar.postmanager.benchmark;
+
+import com.athar.postmanager.dto.CursorPage;
+import com.athar.postmanager.model.Comment;
+import com.athar.postmanager.service.CommentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fetching a page of a busy post's comments at increasing depth: OFFSET pagination
+ * ({@code getCommentsByPost}) against the keyset cursor ({@code getCommentsPage}) resumed at the
+ * same position.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CommentPaginationBenchmark {
+
+    private static final int COMMENTS = 50_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"0", "100", "2000"})
+    private int page;
+
+    private BenchmarkContext context;
+    private CommentService commentService;
+    private long postId;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        postId = context.seedPosts(1, 0);
+        context.seedComments(postId, COMMENTS);
+        commentService = context.bean(CommentService.class);
+
+        // Walk to the requested page once so the keyset benchmark starts from the same spot
+        cursor = null;
+        for (int i = 0; i < page; i++) {
+            cursor = commentService.getCommentsPage(postId, cursor, PAGE_SIZE).nextCursor();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Comment> offsetPage() {
+        return commentService.getCommentsByPost(postId, page, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public CursorPage<Comment> keysetPage() {
+        return commentService.getCommentsPage(postId, cursor, PAGE_SIZE);
+    }
+}
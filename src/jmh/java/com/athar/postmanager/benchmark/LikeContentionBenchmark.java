@@ -0,0 +1,68 @@
+package com.athar.postmanager.benchmark;
+
+import com.athar.postmanager.service.PostService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code likePost} throughput under contention, from 1 to 64 threads. {@code hotPosts} controls
+ * how concentrated the likes are: 1 means every thread hammers the same post.
+ * The write-behind flush runs on its normal schedule during the measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LikeContentionBenchmark {
+
+    @Param({"1", "100"})
+    private int hotPosts;
+
+    private BenchmarkContext context;
+    private PostService postService;
+    private long firstPostId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        firstPostId = context.seedPosts(hotPosts, 0);
+        postService = context.bean(PostService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long like() {
+        return postService.likePost(firstPostId + ThreadLocalRandom.current().nextInt(hotPosts));
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long threads01() {
+        return like();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long threads04() {
+        return like();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long threads16() {
+        return like();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long threads64() {
+        return like();
+    }
+}
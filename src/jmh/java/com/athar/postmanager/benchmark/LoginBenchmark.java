@@ -0,0 +1,58 @@
+package com.athar.postmanager.benchmark;
+
+import com.athar.postmanager.model.User;
+import com.athar.postmanager.service.AuthService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@code AuthService.login}, dominated by BCrypt verification, at the configured cost
+ * factors. Login throttling is lifted so it never rejects the benchmark's repeated attempts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"10", "12"})
+    private int bcryptStrength;
+
+    private BenchmarkContext context;
+    private AuthService authService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start(
+                "--post.auth.bcrypt-strength=" + bcryptStrength,
+                "--post.auth.throttle.max-attempts-per-username=" + Integer.MAX_VALUE,
+                "--post.auth.throttle.max-attempts-per-ip=" + Integer.MAX_VALUE);
+        authService = context.bean(AuthService.class);
+        authService.register("bench", PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public User validPassword() {
+        return authService.login("bench", PASSWORD, "127.0.0.1");
+    }
+
+    @Benchmark
+    public boolean wrongPassword() {
+        try {
+            authService.login("bench", "wrong password", "127.0.0.1");
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
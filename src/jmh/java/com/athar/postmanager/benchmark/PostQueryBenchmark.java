@@ -0,0 +1,51 @@
+package com.athar.postmanager.benchmark;
+
+import com.athar.postmanager.dto.CursorPage;
+import com.athar.postmanager.dto.PostSummary;
+import com.athar.postmanager.model.Post;
+import com.athar.postmanager.service.PostService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listing posts with deleted ones filtered out: the unbounded {@code getAllPosts} against the
+ * first keyset page, at growing table sizes. One post in ten is soft-deleted.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class PostQueryBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int posts;
+
+    private BenchmarkContext context;
+    private PostService postService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start();
+        context.seedPosts(posts, 10);
+        postService = context.bean(PostService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Post> getAllPosts() {
+        return postService.getAllPosts();
+    }
+
+    @Benchmark
+    public CursorPage<PostSummary> firstPage() {
+        return postService.getPostsPage(null, 20);
+    }
+}
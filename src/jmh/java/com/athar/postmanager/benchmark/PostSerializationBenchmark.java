@@ -0,0 +1,56 @@
+package com.athar.postmanager.benchmark;
+
+import com.athar.postmanager.model.Comment;
+import com.athar.postmanager.model.Post;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a {@link Post} as the controllers return it, with an empty comment
+ * list and with {@code comments} comments attached. Uses an ObjectMapper configured the way
+ * Spring Boot configures the application's, without starting the application.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostSerializationBenchmark {
+
+    @Param({"0", "20", "200"})
+    private int comments;
+
+    private ObjectMapper objectMapper;
+    private Post post;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 12, 0);
+        post = new Post("A benchmark post", "Some content ".repeat(40));
+        post.setId(1L);
+        post.setCreatedAt(now);
+        post.setUpdatedAt(now);
+        for (int i = 0; i < comments; i++) {
+            Comment comment = new Comment((long) i, post, "user" + i, "A comment of moderate length, number " + i);
+            comment.setCreatedAt(now.plusMinutes(i));
+            post.addComment(comment);
+        }
+    }
+
+    @Benchmark
+    public String serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(post);
+    }
+
+    @Benchmark
+    public byte[] serializeToBytes() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(post);
+    }
+}
@@ -0,0 +1,245 @@
+package com.athar.postmanager.loadtest;
+
+import com.athar.postmanager.loadtest.Workload.Operation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load test against one node.
+ *
+ * Boots the application (see {@link LoadTestServer}), seeds it, then runs {@code --concurrency}
+ * virtual users, each sending the next request from the mix as soon as the previous one returns.
+ * After {@code --warmup} the counters are reset and the run is measured for {@code --duration}.
+ * Reports throughput, p50/p99/p99.9 latency and JDBC statements per request for every operation,
+ * on stdout and as JSON.
+ *
+ * Options ({@code --name=value}): duration, warmup, concurrency, posts, hot-posts, hot-share,
+ * max-comments, users, mix, report. Anything else is passed on to the application, e.g.
+ * {@code --post.cache.maximum-size=0}.
+ */
+public final class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("duration", "60s");
+        DEFAULTS.put("warmup", "15s");
+        DEFAULTS.put("concurrency", "64");
+        DEFAULTS.put("posts", "10000");
+        DEFAULTS.put("hot-posts", "20");
+        DEFAULTS.put("hot-share", "0.8");
+        DEFAULTS.put("max-comments", "5000");
+        DEFAULTS.put("users", "50");
+        DEFAULTS.put("mix", "");
+        DEFAULTS.put("report", "target/loadtest-report.json");
+    }
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        List<String> applicationArgs = new ArrayList<>();
+        for (String arg : args) {
+            String name = arg.startsWith("--") && arg.contains("=") ? arg.substring(2, arg.indexOf('=')) : null;
+            if (name != null && DEFAULTS.containsKey(name)) {
+                options.put(name, arg.substring(arg.indexOf('=') + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+
+        Duration duration = duration(options.get("duration"));
+        Duration warmup = duration(options.get("warmup"));
+        int concurrency = Integer.parseInt(options.get("concurrency"));
+        int posts = Integer.parseInt(options.get("posts"));
+        Map<Operation, Integer> mix = Workload.parseMix(options.get("mix"));
+
+        try (LoadTestServer server = LoadTestServer.start(applicationArgs)) {
+            System.out.printf("Seeding %d posts and %s users...%n", posts, options.get("users"));
+            long firstPostId = server.seedPosts(posts, Integer.parseInt(options.get("max-comments")));
+            server.seedUsers(Integer.parseInt(options.get("users")));
+
+            Workload workload = new Workload(URI.create("http://localhost:" + server.port()), firstPostId, posts,
+                    Integer.parseInt(options.get("hot-posts")), Double.parseDouble(options.get("hot-share")),
+                    Integer.parseInt(options.get("users")), mix);
+            Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+            mix.forEach((operation, weight) -> {
+                if (weight > 0) stats.put(operation, new OperationStats());
+            });
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            System.out.printf("Warming up for %s with %d users...%n", warmup, concurrency);
+            drive(client, workload, stats, concurrency, warmup);
+            stats.values().forEach(OperationStats::reset);
+            Map<Operation, double[]> queriesBefore = queryTotals(server, stats.keySet());
+
+            System.out.printf("Measuring for %s...%n", duration);
+            long started = System.nanoTime();
+            drive(client, workload, stats, concurrency, duration);
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            Report report = report(options, seconds, stats, queriesBefore, queryTotals(server, stats.keySet()));
+            print(report);
+            Path reportFile = Path.of(options.get("report"));
+            if (reportFile.getParent() != null) Files.createDirectories(reportFile.getParent());
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(reportFile.toFile(), report);
+            System.out.printf("Report written to %s%n", reportFile.toAbsolutePath());
+        }
+        System.exit(0);
+    }
+
+    // ------------------------------------------------------
+    // DRIVING
+    // ------------------------------------------------------
+    private static void drive(HttpClient client, Workload workload, Map<Operation, OperationStats> stats,
+                              int concurrency, Duration length) throws InterruptedException {
+        long deadline = System.nanoTime() + length.toNanos();
+        ExecutorService users = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            users.execute(() -> {
+                while (System.nanoTime() < deadline) {
+                    Operation operation = workload.next();
+                    OperationStats operationStats = stats.get(operation);
+                    long start = System.nanoTime();
+                    int status;
+                    try {
+                        status = client.send(workload.request(operation), HttpResponse.BodyHandlers.discarding())
+                                .statusCode();
+                    } catch (IOException e) {
+                        status = -1;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    operationStats.record(status, System.nanoTime() - start);
+                }
+            });
+        }
+        users.shutdown();
+        if (!users.awaitTermination(length.toMillis() + 60_000, TimeUnit.MILLISECONDS)) {
+            users.shutdownNow();
+        }
+    }
+
+    private static final class OperationStats {
+        private final Recorder latencyMicros = new Recorder(3);
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private Histogram measured;
+
+        void record(int status, long nanos) {
+            latencyMicros.recordValue(Math.max(1, nanos / 1000));
+            statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        }
+
+        void reset() {
+            latencyMicros.getIntervalHistogram();
+            statuses.clear();
+        }
+
+        Histogram histogram() {
+            if (measured == null) measured = latencyMicros.getIntervalHistogram();
+            return measured;
+        }
+    }
+
+    private static Map<Operation, double[]> queryTotals(LoadTestServer server, Iterable<Operation> operations) {
+        Map<Operation, double[]> totals = new EnumMap<>(Operation.class);
+        operations.forEach(operation -> totals.put(operation, server.queryTotals(operation.method, operation.route)));
+        return totals;
+    }
+
+    // ------------------------------------------------------
+    // REPORTING
+    // ------------------------------------------------------
+    record OperationReport(String operation, String route, long requests, long errors, double requestsPerSecond,
+                           double p50Ms, double p99Ms, double p999Ms, double maxMs, double queriesPerRequest,
+                           Map<String, Long> statuses) {}
+
+    // The load generator shares the machine with the node, so record how much CPU both had
+    record Report(Map<String, String> options, int processors, double seconds, long requests, long errors,
+                  double requestsPerSecond, List<OperationReport> operations) {}
+
+    private static Report report(Map<String, String> options, double seconds, Map<Operation, OperationStats> stats,
+                                 Map<Operation, double[]> queriesBefore, Map<Operation, double[]> queriesAfter) {
+        List<OperationReport> operations = new ArrayList<>();
+        long requests = 0;
+        long errors = 0;
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            Operation operation = entry.getKey();
+            Histogram histogram = entry.getValue().histogram();
+            Map<String, Long> statuses = new TreeMap<>();
+            entry.getValue().statuses.forEach((status, count) ->
+                    statuses.put(status < 0 ? "io-error" : String.valueOf(status), count.sum()));
+            long operationErrors = statuses.entrySet().stream()
+                    .filter(status -> !status.getKey().startsWith("2"))
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+            double[] before = queriesBefore.get(operation);
+            double[] after = queriesAfter.get(operation);
+            double handled = after[0] - before[0];
+            double queriesPerRequest = handled == 0 ? 0 : (after[1] - before[1]) / handled;
+
+            long count = histogram.getTotalCount();
+            operations.add(new OperationReport(operation.key(), operation.method + " " + operation.route, count,
+                    operationErrors, round(count / seconds), millis(histogram, 50), millis(histogram, 99),
+                    millis(histogram, 99.9), round(histogram.getMaxValue() / 1000.0), round(queriesPerRequest),
+                    statuses));
+            requests += count;
+            errors += operationErrors;
+        }
+        return new Report(options, Runtime.getRuntime().availableProcessors(), round(seconds), requests, errors, round(requests / seconds), operations);
+    }
+
+    private static void print(Report report) {
+        System.out.printf("%n%-14s %9s %7s %9s %9s %9s %9s %9s %8s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "queries");
+        for (OperationReport operation : report.operations()) {
+            System.out.printf("%-14s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %8.2f%n",
+                    operation.operation(), operation.requests(), operation.errors(), operation.requestsPerSecond(),
+                    operation.p50Ms(), operation.p99Ms(), operation.p999Ms(), operation.maxMs(),
+                    operation.queriesPerRequest());
+        }
+        System.out.printf("%-14s %9d %7d %9.1f%n", "total", report.requests(), report.errors(),
+                report.requestsPerSecond());
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return round(histogram.getValueAtPercentile(percentile) / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+
+    private static Duration duration(String value) {
+        String text = value.trim().toLowerCase();
+        if (text.endsWith("ms")) return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        if (text.endsWith("s")) return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+        if (text.endsWith("m")) return Duration.ofMinutes(Long.parseLong(text.substring(0, text.length() - 1)));
+        return Duration.ofSeconds(Long.parseLong(text));
+    }
+}
@@ -0,0 +1,148 @@
+package com.athar.postmanager.loadtest;
+
+import com.athar.postmanager.PostManagerApplication;
+import com.athar.postmanager.model.Comment;
+import com.athar.postmanager.service.AuthService;
+import com.athar.postmanager.service.CommentService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The node under test: the full application with its web server on a random port, backed by a
+ * private in-memory H2 database in MySQL mode, and seeded with a skewed data set.
+ */
+final class LoadTestServer implements AutoCloseable {
+
+    private static final int SEED_BATCH = 1000;
+
+    private final ConfigurableApplicationContext context;
+    private final Path indexDir;
+
+    private LoadTestServer(ConfigurableApplicationContext context, Path indexDir) {
+        this.context = context;
+        this.indexDir = indexDir;
+    }
+
+    static LoadTestServer start(List<String> overrides) {
+        Path indexDir;
+        try {
+            indexDir = Files.createTempDirectory("post-manager-loadtest-index");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest-" + UUID.randomUUID()
+                        + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--post.search.index-dir=" + indexDir,
+                // A few hundred virtual users log in repeatedly; throttling would turn that into 429s
+                "--post.auth.throttle.max-attempts-per-username=" + Integer.MAX_VALUE,
+                "--post.auth.throttle.max-attempts-per-ip=" + Integer.MAX_VALUE,
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"));
+        args.addAll(overrides);
+        ConfigurableApplicationContext context =
+                SpringApplication.run(PostManagerApplication.class, args.toArray(String[]::new));
+        return new LoadTestServer(context, indexDir);
+    }
+
+    int port() {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    // ------------------------------------------------------
+    // SEEDING
+    // ------------------------------------------------------
+
+    /**
+     * Inserts {@code posts} posts whose comment counts follow a Zipf-like curve: the post of rank r
+     * (1 = hottest) gets about {@code maxComments / r} comments. The hottest posts are the first ids.
+     *
+     * @return the id of the first (hottest) post
+     */
+    long seedPosts(int posts, int maxComments) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        LocalDateTime base = LocalDateTime.now().minusDays(30);
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+        for (int i = 0; i < posts; i++) {
+            Timestamp createdAt = Timestamp.valueOf(base.plusSeconds(i * 30L));
+            batch.add(new Object[]{"Load test post " + i, "Body of post " + i + " with some searchable words",
+                    Math.max(0, 1000 / (i + 1)), createdAt, createdAt});
+            if (batch.size() == SEED_BATCH || i == posts - 1) {
+                jdbc.batchUpdate("INSERT INTO posts (title, content, likes, deleted, version, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, false, 0, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        Long first = jdbc.queryForObject("SELECT MIN(id) FROM posts", Long.class);
+        long firstId = first == null ? 0 : first;
+
+        CommentService commentService = context.getBean(CommentService.class);
+        List<Comment> comments = new ArrayList<>(CommentService.MAX_BATCH_SIZE);
+        for (int rank = 1; rank <= posts; rank++) {
+            int count = maxComments / rank;
+            if (count == 0) break;
+            for (int c = 0; c < count; c++) {
+                comments.add(new Comment(null, firstId + rank - 1, "seed" + (c % 100), "Seed comment " + c));
+                if (comments.size() == CommentService.MAX_BATCH_SIZE) {
+                    commentService.addComments(comments);
+                    comments = new ArrayList<>(CommentService.MAX_BATCH_SIZE);
+                }
+            }
+        }
+        if (!comments.isEmpty()) {
+            commentService.addComments(comments);
+        }
+        return firstId;
+    }
+
+    void seedUsers(int users) {
+        AuthService authService = context.getBean(AuthService.class);
+        for (int i = 0; i < users; i++) {
+            authService.register(Workload.username(i), Workload.password(i));
+        }
+    }
+
+    // ------------------------------------------------------
+    // SERVER-SIDE METRICS
+    // ------------------------------------------------------
+
+    /** Count and total of JDBC statements recorded for one route, from the per-request query metric. */
+    double[] queryTotals(String method, String route) {
+        DistributionSummary summary = context.getBean(MeterRegistry.class).find("http.server.requests.queries")
+                .tag("method", method)
+                .tag("uri", route)
+                .summary();
+        return summary == null ? new double[]{0, 0} : new double[]{summary.count(), summary.totalAmount()};
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        try {
+            FileSystemUtils.deleteRecursively(indexDir);
+        } catch (IOException e) {
+            // Temp directory; leave it behind rather than fail the run
+        }
+    }
+}
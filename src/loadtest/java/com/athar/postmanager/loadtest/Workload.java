@@ -0,0 +1,145 @@
+package com.athar.postmanager.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The request mix: which operation each virtual user sends next, and the request for it.
+ * Post ids are skewed: {@code hotShare} of all post-targeted requests go to the {@code hotPosts}
+ * hottest posts, the rest are spread evenly over the whole table.
+ */
+final class Workload {
+
+    enum Operation {
+        LIST_POSTS("GET", "/api/posts", 25),
+        GET_POST("GET", "/api/posts/{id}", 35),
+        LIKE_POST("POST", "/api/posts/{id}/like", 10),
+        LIST_COMMENTS("GET", "/api/comments/scroll", 15),
+        ADD_COMMENT("POST", "/api/comments", 8),
+        LOGIN("POST", "/api/auth/login", 4),
+        CREATE_POST("POST", "/api/posts", 3);
+
+        final String method;
+        final String route;
+        final int defaultWeight;
+
+        Operation(String method, String route, int defaultWeight) {
+            this.method = method;
+            this.route = route;
+            this.defaultWeight = defaultWeight;
+        }
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT).replace('_', '-');
+        }
+    }
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI base;
+    private final long firstPostId;
+    private final int posts;
+    private final int hotPosts;
+    private final double hotShare;
+    private final int users;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    Workload(URI base, long firstPostId, int posts, int hotPosts, double hotShare, int users,
+             Map<Operation, Integer> weights) {
+        this.base = base;
+        this.firstPostId = firstPostId;
+        this.posts = posts;
+        this.hotPosts = Math.max(1, Math.min(hotPosts, posts));
+        this.hotShare = hotShare;
+        this.users = users;
+        this.operations = weights.keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) throw new IllegalArgumentException("The request mix needs at least one weighted operation");
+    }
+
+    static String username(int i) {
+        return "loadtest-user-" + i;
+    }
+
+    static String password(int i) {
+        return "loadtest-password-" + i;
+    }
+
+    /** Parses {@code get-post=35,like-post=10,...}; operations left out keep their default weight. */
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            weights.put(operation, operation.defaultWeight);
+        }
+        if (mix == null || mix.isBlank()) return weights;
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) throw new IllegalArgumentException("Bad mix entry: " + entry);
+            Operation operation = null;
+            for (Operation candidate : Operation.values()) {
+                if (candidate.key().equals(parts[0].trim())) operation = candidate;
+            }
+            if (operation == null) throw new IllegalArgumentException("Unknown operation: " + parts[0]);
+            weights.put(operation, Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+
+    Operation next() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) return operations[i];
+        }
+        return operations[operations.length - 1];
+    }
+
+    HttpRequest request(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return switch (operation) {
+            case LIST_POSTS -> get("/api/posts?limit=20");
+            case GET_POST -> get("/api/posts/" + postId());
+            case LIKE_POST -> post("/api/posts/" + postId() + "/like", "");
+            case LIST_COMMENTS -> get("/api/comments/scroll?limit=20&postId=" + postId());
+            case ADD_COMMENT -> post("/api/comments", """
+                    {"post":{"id":%d},"author":"loadtest","content":"Load test comment %d"}"""
+                    .formatted(postId(), random.nextInt()));
+            case LOGIN -> {
+                int user = random.nextInt(users);
+                yield post("/api/auth/login", """
+                        {"username":"%s","password":"%s"}""".formatted(username(user), password(user)));
+            }
+            case CREATE_POST -> post("/api/posts", """
+                    {"title":"Load test post %d","content":"Created during the load test"}"""
+                    .formatted(random.nextInt()));
+        };
+    }
+
+    private long postId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int offset = random.nextDouble() < hotShare ? random.nextInt(hotPosts) : random.nextInt(posts);
+        return firstPostId + offset;
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
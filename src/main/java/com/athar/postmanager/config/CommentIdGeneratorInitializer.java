@@ -0,0 +1,54 @@
+package com.athar.postmanager.config;
+
+import com.athar.postmanager.model.Comment;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the pooled comment id generator past any existing comment ids.
+ *
+ * Comments used IDENTITY ids before the switch to a table generator, so on an existing
+ * database the generator row must start above MAX(comments.id). Depending on the
+ * EntityManagerFactory guarantees the schema has been updated before this runs, and
+ * {@code @PostConstruct} runs before the web server accepts requests.
+ */
+@Component
+public class CommentIdGeneratorInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentIdGeneratorInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CommentIdGeneratorInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignWithExistingIds() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM comments", Long.class);
+        // Two blocks of headroom covers both interpretations of the stored value (next id or block end)
+        long floor = (maxId == null ? 0 : maxId) + 2L * Comment.ID_ALLOCATION_SIZE + 1;
+
+        String table = Comment.ID_GENERATOR_TABLE;
+        int updated = jdbcTemplate.update(
+                "UPDATE " + table + " SET gen_value = ? WHERE gen_name = ? AND gen_value < ?",
+                floor, Comment.ID_GENERATOR_NAME, floor);
+        Integer rows = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE gen_name = ?", Integer.class, Comment.ID_GENERATOR_NAME);
+        if (rows == null || rows == 0) {
+            if (maxId == null || maxId == 0) {
+                return; // empty table: let Hibernate initialize the row on first use
+            }
+            jdbcTemplate.update("INSERT INTO " + table + " (gen_name, gen_value) VALUES (?, ?)",
+                    Comment.ID_GENERATOR_NAME, floor);
+            updated = 1;
+        }
+        if (updated > 0) {
+            log.info("Comment id generator moved to {} (max existing id {})", floor, maxId);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.athar.postmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * A small, separate pool for the streaming exports.
+ *
+ * Only these connections turn on MySQL cursor fetch, which the driver needs to honour a fetch
+ * size; with it every statement becomes a server-side prepared statement, an extra round trip
+ * the request-path pool should not pay. The pool is not a default candidate, so the primary
+ * DataSource is still auto-configured and injected everywhere else.
+ */
+@Configuration
+public class ExportDataSourceConfig {
+
+    public static final String EXPORT_DATA_SOURCE = "exportDataSource";
+
+    @Bean(name = EXPORT_DATA_SOURCE, defaultCandidate = false)
+    public DataSource exportDataSource(DataSourceProperties properties,
+                                       @Value("${post.export.pool-size:2}") int poolSize,
+                                       @Value("${post.export.connection-timeout:2s}") Duration connectionTimeout) {
+        if (poolSize <= 0) throw new IllegalArgumentException("Export pool size must be positive");
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("post-manager-export");
+        dataSource.setMaximumPoolSize(poolSize);
+        // Connections are opened on the first export, not at startup
+        dataSource.setMinimumIdle(0);
+        dataSource.setConnectionTimeout(connectionTimeout.toMillis());
+        dataSource.setReadOnly(true);
+        if (dataSource.getJdbcUrl() != null && dataSource.getJdbcUrl().startsWith("jdbc:mysql:")) {
+            dataSource.addDataSourceProperty("useCursorFetch", "true");
+        }
+        return dataSource;
+    }
+}
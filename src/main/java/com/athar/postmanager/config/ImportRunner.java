@@ -0,0 +1,83 @@
+package com.athar.postmanager.config;
+
+import com.athar.postmanager.dto.ImportReport;
+import com.athar.postmanager.service.ImportService;
+import com.athar.postmanager.service.PostSearchIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Command-line entry point for bulk imports (profile {@code import}): imports the files given as
+ * {@code --import.posts} and {@code --import.comments}, posts first, logs the reports and exits
+ * non-zero if either import did not complete. The search index rebuild a post import starts runs
+ * in the background, so it is awaited before exiting.
+ */
+@Component
+@Profile("import")
+public class ImportRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportRunner.class);
+
+    private final ImportService importService;
+    private final PostSearchIndex searchIndex;
+    private final ConfigurableApplicationContext context;
+
+    public ImportRunner(ImportService importService, PostSearchIndex searchIndex,
+                        ConfigurableApplicationContext context) {
+        this.importService = importService;
+        this.searchIndex = searchIndex;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException, InterruptedException {
+        ImportService.Format format = ImportService.Format.parse(option(args, "import.format", "ndjson"));
+        String job = option(args, "import.job", null);
+        boolean completed = true;
+
+        String posts = option(args, "import.posts", null);
+        if (posts != null) {
+            try (InputStream in = Files.newInputStream(Path.of(posts))) {
+                completed = report(importService.importPosts(in, format, job == null ? null : job + "-posts"));
+            }
+        }
+        String comments = option(args, "import.comments", null);
+        if (comments != null && completed) {
+            try (InputStream in = Files.newInputStream(Path.of(comments))) {
+                completed = report(importService.importComments(in, format, job == null ? null : job + "-comments"));
+            }
+        }
+        if (posts == null && comments == null) {
+            log.warn("Nothing to import; pass --import.posts=<file> and/or --import.comments=<file>");
+        }
+
+        log.info("Waiting for the search index rebuild to finish");
+        searchIndex.awaitReindex();
+
+        int exitCode = completed ? 0 : 1;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    private static boolean report(ImportReport report) {
+        log.info("Import report: {}", report);
+        report.errors().forEach(error -> log.warn("Import {}: {}", report.job(), error));
+        return report.completed();
+    }
+
+    private static String option(ApplicationArguments args, String name, String defaultValue) {
+        List<String> values = args.getOptionValues(name);
+        return values == null || values.isEmpty() ? defaultValue : values.get(0);
+    }
+}
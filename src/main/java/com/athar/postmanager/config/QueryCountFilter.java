@@ -0,0 +1,48 @@
+package com.athar.postmanager.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many JDBC statements each request executed, as {@code http.server.requests.queries}
+ * tagged like {@code http.server.requests} by method and route. A climbing count on one route is
+ * how an N+1 shows up.
+ */
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryCountFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        QueryMetrics.resetThreadCount();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // Async requests (exports) continue on another thread; their count would be partial
+            if (!request.isAsyncStarted()) {
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                DistributionSummary.builder("http.server.requests.queries")
+                        .description("JDBC statements executed per request")
+                        .baseUnit("statements")
+                        .tag("method", request.getMethod())
+                        .tag("uri", route == null ? "UNKNOWN" : route.toString())
+                        .register(meterRegistry)
+                        .record(QueryMetrics.threadCount());
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.athar.postmanager.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statement-level database metrics, taken at the JDBC layer so Hibernate and JdbcTemplate
+ * statements are both covered.
+ *
+ * Every execute call is timed as {@code db.statements} (tagged by kind) and counted per thread,
+ * which {@link QueryCountFilter} turns into a per-request query count. Statements slower than
+ * {@code post.metrics.slow-query.threshold} are counted as {@code db.statements.slow} and a
+ * sample of them is logged to {@code com.athar.postmanager.sql.slow}, in place of logging
+ * every statement with show-sql.
+ */
+@Component
+public class QueryMetrics {
+
+    private static final Logger slowLog = LoggerFactory.getLogger("com.athar.postmanager.sql.slow");
+
+    private static final ThreadLocal<int[]> statementsOnThread = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final Map<String, Timer> timers;
+    private final Counter slowStatements;
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final int maxSqlLength;
+
+    public QueryMetrics(MeterRegistry meterRegistry,
+                        @Value("${post.metrics.slow-query.threshold:500ms}") Duration threshold,
+                        @Value("${post.metrics.slow-query.sample-rate:1.0}") double sampleRate,
+                        @Value("${post.metrics.slow-query.max-sql-length:1000}") int maxSqlLength) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Slow query sample rate must be between 0 and 1");
+        }
+        this.timers = Map.of(
+                "query", timer(meterRegistry, "query"),
+                "update", timer(meterRegistry, "update"),
+                "batch", timer(meterRegistry, "batch"),
+                "execute", timer(meterRegistry, "execute"));
+        this.slowStatements = Counter.builder("db.statements.slow")
+                .description("Statements slower than the slow-query threshold")
+                .register(meterRegistry);
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.maxSqlLength = maxSqlLength;
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String kind) {
+        return Timer.builder("db.statements")
+                .description("JDBC statement execution time")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    // ------------------------------------------------------
+    // PER-THREAD COUNT
+    // ------------------------------------------------------
+    public static void resetThreadCount() {
+        statementsOnThread.get()[0] = 0;
+    }
+
+    public static int threadCount() {
+        return statementsOnThread.get()[0];
+    }
+
+    // ------------------------------------------------------
+    // RECORDING
+    // ------------------------------------------------------
+    void record(String kind, String sql, long nanos) {
+        statementsOnThread.get()[0]++;
+        timers.get(kind).record(nanos, TimeUnit.NANOSECONDS);
+        if (nanos < thresholdNanos) return;
+
+        slowStatements.increment();
+        if (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            slowLog.warn("Slow {} took {} ms: {}", kind, nanos / 1_000_000, abbreviate(sql));
+        }
+    }
+
+    private String abbreviate(String sql) {
+        if (sql == null) return "<unknown>";
+        String oneLine = sql.replaceAll("\\s+", " ").trim();
+        return oneLine.length() <= maxSqlLength ? oneLine : oneLine.substring(0, maxSqlLength) + "...";
+    }
+
+    private static String kindOf(String method) {
+        return switch (method) {
+            case "executeQuery" -> "query";
+            case "executeUpdate", "executeLargeUpdate" -> "update";
+            case "executeBatch", "executeLargeBatch" -> "batch";
+            default -> "execute";
+        };
+    }
+
+    // ------------------------------------------------------
+    // JDBC WRAPPERS
+    // ------------------------------------------------------
+    public DataSource wrap(DataSource dataSource) {
+        return dataSource instanceof InstrumentedDataSource ? dataSource : new InstrumentedDataSource(dataSource);
+    }
+
+    /**
+     * Hands out instrumented connections; unwrap() still reaches the pool, so pool metrics and
+     * health checks keep working, and close() shuts the pool down with the context.
+     */
+    final class InstrumentedDataSource extends DelegatingDataSource implements AutoCloseable {
+
+        InstrumentedDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return instrument(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return instrument(super.getConnection(username, password));
+        }
+
+        @Override
+        public void close() throws Exception {
+            if (getTargetDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private Connection instrument(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            return switch (method.getName()) {
+                case "createStatement" -> statement(Statement.class, (Statement) result, null);
+                case "prepareStatement" -> statement(PreparedStatement.class, (Statement) result, (String) args[0]);
+                case "prepareCall" -> statement(CallableStatement.class, (Statement) result, (String) args[0]);
+                default -> result;
+            };
+        });
+    }
+
+    private <S extends Statement> S statement(Class<S> type, Statement statement, String preparedSql) {
+        return proxy(type, type.cast(statement), (proxy, method, args) -> {
+            if (!method.getName().startsWith("execute")) {
+                return invoke(statement, method, args);
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : preparedSql;
+            long start = System.nanoTime();
+            try {
+                return invoke(statement, method, args);
+            } finally {
+                record(kindOf(method.getName()), sql, System.nanoTime() - start);
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(QueryMetrics.class.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.athar.postmanager.controller;
+
+import com.athar.postmanager.dto.BulkDeleteJob;
+import com.athar.postmanager.dto.ImportReport;
+import com.athar.postmanager.service.ImportService;
+import com.athar.postmanager.service.PostDeletionService;
+import com.athar.postmanager.service.PostSearchIndex;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final PostDeletionService postDeletionService;
+    private final PostSearchIndex postSearchIndex;
+    private final ImportService importService;
+
+    public AdminController(PostDeletionService postDeletionService,
+                           PostSearchIndex postSearchIndex,
+                           ImportService importService) {
+        this.postDeletionService = postDeletionService;
+        this.postSearchIndex = postSearchIndex;
+        this.importService = importService;
+    }
+
+    // Delete many posts (and their comments) in the background
+    @PostMapping("/posts/bulk-delete")
+    public ResponseEntity<?> bulkDeletePosts(@RequestBody Map<String, List<Long>> body) {
+        try {
+            BulkDeleteJob job = postDeletionService.submitBulkDelete(body.get("ids"));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Poll a bulk delete job
+    @GetMapping("/posts/bulk-delete/{jobId}")
+    public ResponseEntity<?> getBulkDeleteJob(@PathVariable String jobId) {
+        return postDeletionService.getBulkDeleteJob(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Job not found"));
+    }
+
+    // Rebuild the search index from the database in the background
+    @PostMapping("/search/reindex")
+    public ResponseEntity<?> reindexSearch() {
+        if (!postSearchIndex.submitReindex()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", "Reindex already running"));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(postSearchIndex.status());
+    }
+
+    // Index size and reindex progress
+    @GetMapping("/search")
+    public ResponseEntity<?> getSearchStatus() {
+        return ResponseEntity.ok(postSearchIndex.status());
+    }
+
+    // Bulk import posts from an NDJSON or CSV request body; re-send with the same job to resume
+    @PostMapping("/import/posts")
+    public ResponseEntity<?> importPosts(@RequestParam(defaultValue = "ndjson") String format,
+                                         @RequestParam(required = false) String job,
+                                         InputStream body) {
+        return runImport(() -> importService.importPosts(body, ImportService.Format.parse(format), job));
+    }
+
+    // Bulk import comments from an NDJSON or CSV request body
+    @PostMapping("/import/comments")
+    public ResponseEntity<?> importComments(@RequestParam(defaultValue = "ndjson") String format,
+                                            @RequestParam(required = false) String job,
+                                            InputStream body) {
+        return runImport(() -> importService.importComments(body, ImportService.Format.parse(format), job));
+    }
+
+    private ResponseEntity<?> runImport(Supplier<ImportReport> importer) {
+        try {
+            return ResponseEntity.ok(importer.get());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (UncheckedIOException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Could not read import body"));
+        }
+    }
+}
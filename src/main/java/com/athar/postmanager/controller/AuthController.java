@@ -1,7 +1,13 @@
 package com.athar.postmanager.controller;
 
+import com.athar.postmanager.exception.ConflictException;
+import com.athar.postmanager.exception.ServiceUnavailableException;
+import com.athar.postmanager.exception.TooManyRequestsException;
 import com.athar.postmanager.model.User;
 import com.athar.postmanager.service.AuthService;
+import com.athar.postmanager.service.JwtService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -12,9 +18,11 @@ import java.util.Map;
 public class AuthController {
 
     private final AuthService authService;
+    private final JwtService jwtService;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, JwtService jwtService) {
         this.authService = authService;
+        this.jwtService = jwtService;
     }
 
     @PostMapping("/register")
@@ -27,23 +35,46 @@ public class AuthController {
             return ResponseEntity.ok(Map.of("message", "Registration successful", "userId", user.getId()));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (ConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        } catch (ServiceUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/available")
+    public ResponseEntity<?> isUsernameAvailable(@RequestParam String username) {
+        try {
+            return ResponseEntity.ok(Map.of(
+                    "username", username,
+                    "available", authService.isUsernameAvailable(username)
+            ));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody Map<String, String> body) {
+    public ResponseEntity<?> login(@RequestBody Map<String, String> body, HttpServletRequest request) {
         String username = body.get("username");
         String password = body.get("password");
 
         try {
-            User user = authService.login(username, password);
+            User user = authService.login(username, password, request.getRemoteAddr());
             return ResponseEntity.ok(Map.of(
                     "message", "Login successful",
                     "username", user.getUsername(),
-                    "roles", user.getRoles()
+                    "roles", user.getRoles(),
+                    "accessToken", jwtService.issueAccessToken(user),
+                    "tokenType", "Bearer",
+                    "expiresIn", jwtService.getAccessTokenTtl().toSeconds()
             ));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+        } catch (ServiceUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
         }
     }
 }
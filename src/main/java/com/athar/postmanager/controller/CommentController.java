@@ -1,12 +1,18 @@
 package com.athar.postmanager.controller;
 
+import com.athar.postmanager.dto.CommentBatchResult;
+import com.athar.postmanager.dto.CommentTicket;
+import com.athar.postmanager.dto.CursorPage;
+import com.athar.postmanager.exception.TooManyRequestsException;
 import com.athar.postmanager.model.Comment;
 import com.athar.postmanager.service.CommentService;
+import com.athar.postmanager.service.CommentWriteQueue;
 
-import org.springframework.data.domain.Page;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
@@ -14,9 +20,11 @@ import java.util.List;
 public class CommentController {
 
     private final CommentService commentService;
+    private final CommentWriteQueue commentWriteQueue;
 
-    public CommentController(CommentService commentService) {
+    public CommentController(CommentService commentService, CommentWriteQueue commentWriteQueue) {
         this.commentService = commentService;
+        this.commentWriteQueue = commentWriteQueue;
     }
 
     // Add a new comment
@@ -30,6 +38,42 @@ public class CommentController {
         }
     }
 
+    // Add many comments in one request; per-item errors are reported in the body
+    @PostMapping("/batch")
+    public ResponseEntity<?> addComments(@RequestBody List<Comment> comments) {
+        try {
+            CommentBatchResult result = commentService.addComments(comments);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Queue a comment for group-committed storage; poll the returned ticket for the outcome
+    @PostMapping("/async")
+    public ResponseEntity<?> addCommentAsync(@RequestBody Comment comment) {
+        try {
+            CommentTicket ticket = commentWriteQueue.submit(comment);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/comments/async/" + ticket.id()))
+                    .body(ticket);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    // Status of an asynchronously submitted comment
+    @GetMapping("/async/{ticketId}")
+    public ResponseEntity<?> getAsyncCommentStatus(@PathVariable String ticketId) {
+        return commentWriteQueue.getTicket(ticketId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body("Ticket not found"));
+    }
+
     // Get all comments for a post
     @GetMapping
     public ResponseEntity<List<Comment>> getCommentsByPost(
@@ -39,6 +83,20 @@ public class CommentController {
         return ResponseEntity.ok(commentService.getCommentsByPost(postId, page, size));
     }
     
+    // Get comments for a post one keyset page at a time; pass nextCursor back as 'after'
+    @GetMapping("/scroll")
+    public ResponseEntity<?> scrollCommentsByPost(
+            @RequestParam Long postId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + CommentService.DEFAULT_PAGE_SIZE) int limit) {
+        try {
+            CursorPage<Comment> page = commentService.getCommentsPage(postId, after, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     // Delete a comment
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteComment(@PathVariable Long id) {
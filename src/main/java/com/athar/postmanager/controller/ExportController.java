@@ -0,0 +1,104 @@
+package com.athar.postmanager.controller;
+
+import com.athar.postmanager.service.ExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final ExportService exportService;
+    private final CallableProcessingInterceptor exportTimeout;
+
+    public ExportController(ExportService exportService,
+                            @Value("${post.export.timeout:30m}") Duration timeout) {
+        this.exportService = exportService;
+        // Raises the async timeout for export responses only; other async requests keep the default
+        this.exportTimeout = new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest asyncRequest) {
+                    asyncRequest.setTimeout(timeout.toMillis());
+                }
+            }
+        };
+    }
+
+    // Stream posts as NDJSON; ?from=&to= (ISO date-time, [from, to)) filter on createdAt or, with by=updatedAt, updatedAt
+    @GetMapping("/posts")
+    public ResponseEntity<StreamingResponseBody> exportPosts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "createdAt") String by,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) {
+        ExportService.PostTimestamp timestamp;
+        if ("createdAt".equals(by)) {
+            timestamp = ExportService.PostTimestamp.CREATED_AT;
+        } else if ("updatedAt".equals(by)) {
+            timestamp = ExportService.PostTimestamp.UPDATED_AT;
+        } else {
+            throw new IllegalArgumentException("'by' must be createdAt or updatedAt");
+        }
+        exportService.validateRange(from, to);
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> exportService.exportPosts(from, to, timestamp, gzip, out);
+        return streaming(request, "posts", gzip, body);
+    }
+
+    // Stream comments as NDJSON; ?from=&to= filter on createdAt
+    @GetMapping("/comments")
+    public ResponseEntity<StreamingResponseBody> exportComments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            HttpServletRequest request) {
+        exportService.validateRange(from, to);
+
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> exportService.exportComments(from, to, gzip, out);
+        return streaming(request, "comments", gzip, body);
+    }
+
+    // The return type must name StreamingResponseBody for MVC to stream it, so bad parameters
+    // are thrown and answered here instead of returning a different body type
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        return acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+    }
+
+    private ResponseEntity<StreamingResponseBody> streaming(HttpServletRequest request, String name, boolean gzip,
+                                                            StreamingResponseBody body) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ExportController.class, exportTimeout);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + ".ndjson\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+}
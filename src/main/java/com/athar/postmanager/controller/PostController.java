@@ -1,12 +1,20 @@
 package com.athar.postmanager.controller;
 
+import com.athar.postmanager.dto.CursorPage;
+import com.athar.postmanager.dto.PostSummary;
+import com.athar.postmanager.dto.PostVersion;
+import com.athar.postmanager.dto.SearchPage;
 import com.athar.postmanager.model.Post;
 import com.athar.postmanager.service.PostService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/posts")
@@ -18,26 +26,78 @@ public class PostController {
         this.postService = postService;
     }
 
-    // Get all posts
+    // Get post summaries, newest first, one keyset page at a time (?after=<createdAt,id>&limit=)
     @GetMapping
-    public ResponseEntity<List<Post>> getAllPosts() {
-        List<Post> posts = postService.getAllPosts();
-        if (posts.isEmpty()) {
-            return ResponseEntity.noContent().build();
+    public ResponseEntity<?> getAllPosts(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int limit) {
+        try {
+            CursorPage<PostSummary> page = postService.getPostsPage(after, limit);
+            if (page.items().isEmpty()) {
+                return ResponseEntity.noContent().build();
+            }
+            // A matching If-None-Match turns this into a 304 without a body
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(PostETags.of(page))
+                    .body(page);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Full-text search over titles and content, best match first (?q=&page=&size=)
+    @GetMapping("/search")
+    public ResponseEntity<?> searchPosts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "" + PostService.DEFAULT_PAGE_SIZE) int size) {
+        try {
+            SearchPage<PostSummary> results = postService.searchPosts(q, page, size);
+            return ResponseEntity.ok(results);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Get most liked posts
+    @GetMapping("/top")
+    public ResponseEntity<?> getTopLikedPosts(@RequestParam(defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(postService.getTopLikedPosts(limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-        return ResponseEntity.ok(posts);
     }
 
     // Get post by ID
     @GetMapping("/{id}")
-    public ResponseEntity<?> getPostById(@PathVariable Long id) {
+    public ResponseEntity<?> getPostById(@PathVariable Long id,
+                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         if (id == null || id <= 0) {
             return ResponseEntity.badRequest().body("Invalid post ID");
         }
 
         try {
+            // Revalidation is answered from the version alone, before the post and its comments are loaded
+            if (ifNoneMatch != null) {
+                Optional<PostVersion> version = postService.getPostVersion(id);
+                if (version.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Post not found");
+                }
+                String etag = PostETags.of(version.get());
+                if (PostETags.matchesAny(ifNoneMatch, etag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                            .cacheControl(CacheControl.noCache())
+                            .eTag(etag)
+                            .build();
+                }
+            }
             Post post = postService.getPostById(id);
-            return ResponseEntity.ok(post);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .eTag(PostETags.of(post))
+                    .body(post);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Post not found");
         }
@@ -55,15 +115,17 @@ public class PostController {
 
         try {
             Post createdPost = postService.createPost(post);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdPost);
+            return ResponseEntity.status(HttpStatus.CREATED).eTag(PostETags.of(createdPost)).body(createdPost);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
-    // Update post
+    // Update post; with If-Match, only while the post is still at the version the client last saw
+    // (a stale tag gets 412 Precondition Failed)
     @PutMapping("/{id}")
-    public ResponseEntity<?> updatePost(@PathVariable Long id, @RequestBody Post post) {
+    public ResponseEntity<?> updatePost(@PathVariable Long id, @RequestBody Post post,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         if (id == null || id <= 0) {
             return ResponseEntity.badRequest().body("Invalid post ID");
         }
@@ -73,8 +135,9 @@ public class PostController {
         }
 
         try {
-            Post updatedPost = postService.updatePost(id, post);
-            return ResponseEntity.ok(updatedPost);
+            Set<Long> expectedVersions = ifMatch == null ? null : PostETags.versionsIn(ifMatch);
+            Post updatedPost = postService.updatePost(id, post, expectedVersions);
+            return ResponseEntity.ok().eTag(PostETags.of(updatedPost)).body(updatedPost);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
         }
@@ -94,4 +157,34 @@ public class PostController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Post not found");
         }
     }
+
+    // Like post
+    @PostMapping("/{id}/like")
+    public ResponseEntity<?> likePost(@PathVariable Long id) {
+        if (id == null || id <= 0) {
+            return ResponseEntity.badRequest().body("Invalid post ID");
+        }
+
+        try {
+            long likes = postService.likePost(id);
+            return ResponseEntity.ok(Map.of("postId", id, "likes", likes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // Unlike post
+    @DeleteMapping("/{id}/like")
+    public ResponseEntity<?> unlikePost(@PathVariable Long id) {
+        if (id == null || id <= 0) {
+            return ResponseEntity.badRequest().body("Invalid post ID");
+        }
+
+        try {
+            long likes = postService.unlikePost(id);
+            return ResponseEntity.ok(Map.of("postId", id, "likes", likes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
 }
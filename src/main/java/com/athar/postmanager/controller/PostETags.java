@@ -0,0 +1,87 @@
+package com.athar.postmanager.controller;
+
+import com.athar.postmanager.dto.CursorPage;
+import com.athar.postmanager.dto.PostSummary;
+import com.athar.postmanager.dto.PostVersion;
+import com.athar.postmanager.model.Post;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Entity tags for post responses.
+ *
+ * A post's tag is {@code "v<version>-<likes>-<comments>-<commentsVersion>"}: the version changes
+ * with every edit, while likes and the comments change without one but are part of the body. The
+ * comments version moves on every comment insert or delete, so a delete followed by an add, which
+ * leaves the count alone, still changes the tag. If-Match on PUT only compares the version part,
+ * so a like or a new comment never fails an edit.
+ * A listing page's tag is a digest of the fields it renders, including the next cursor.
+ */
+final class PostETags {
+
+    private static final Pattern POST_TAG = Pattern.compile("\"v(\\d+)-\\d+-\\d+-\\d+\"");
+    private static final char SEPARATOR = '\u001f';
+
+    private PostETags() {}
+
+    static String of(Post post) {
+        return of(PostVersion.of(post));
+    }
+
+    static String of(PostVersion version) {
+        return "\"v" + version.version() + "-" + zeroIfNull(version.likes()) + "-"
+                + zeroIfNull(version.commentCount()) + "-" + zeroIfNull(version.commentsVersion()) + "\"";
+    }
+
+    static String of(CursorPage<PostSummary> page) {
+        StringBuilder fields = new StringBuilder();
+        for (PostSummary item : page.items()) {
+            fields.append(item.id()).append(SEPARATOR)
+                    .append(item.title()).append(SEPARATOR)
+                    .append(item.excerpt()).append(SEPARATOR)
+                    .append(item.likes()).append(SEPARATOR)
+                    .append(item.commentCount()).append(SEPARATOR)
+                    .append(item.createdAt()).append(SEPARATOR);
+        }
+        fields.append(page.nextCursor());
+        return "\"" + DigestUtils.md5DigestAsHex(fields.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Whether an If-None-Match header names this tag; the comparison is weak, as RFC 9110 asks.
+     */
+    static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch.trim().equals("*")) return true;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Versions named by an If-Match header, or null for {@code *} (any current version).
+     * Weak and foreign tags never match, so they contribute nothing.
+     */
+    static Set<Long> versionsIn(String ifMatch) {
+        if (ifMatch.trim().equals("*")) return null;
+        Set<Long> versions = new HashSet<>();
+        Matcher matcher = POST_TAG.matcher(ifMatch);
+        while (matcher.find()) {
+            int start = matcher.start();
+            if (start >= 2 && ifMatch.startsWith("W/", start - 2)) continue;
+            versions.add(Long.parseLong(matcher.group(1)));
+        }
+        return versions;
+    }
+
+    private static long zeroIfNull(Number value) {
+        return value == null ? 0 : value.longValue();
+    }
+}
@@ -0,0 +1,14 @@
+package com.athar.postmanager.dto;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Identity carried by a verified access token; used as the security principal.
+ */
+public record AuthenticatedUser(Long id, String username, Set<String> roles, Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,50 @@
+package com.athar.postmanager.dto;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Progress of an asynchronous "delete many posts" admin job.
+ */
+public class BulkDeleteJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final int requested;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final AtomicInteger deleted = new AtomicInteger();
+    private final AtomicInteger notFound = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile Status status = Status.QUEUED;
+    private volatile LocalDateTime finishedAt;
+
+    public BulkDeleteJob(String id, int requested) {
+        this.id = id;
+        this.requested = requested;
+    }
+
+    public void markRunning() { this.status = Status.RUNNING; }
+
+    public void markFinished(boolean success) {
+        this.status = success ? Status.COMPLETED : Status.FAILED;
+        this.finishedAt = LocalDateTime.now();
+    }
+
+    public void recordDeleted() { deleted.incrementAndGet(); }
+    public void recordNotFound() { notFound.incrementAndGet(); }
+    public void recordFailed() { failed.incrementAndGet(); }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public String getId() { return id; }
+    public int getRequested() { return requested; }
+    public int getDeleted() { return deleted.get(); }
+    public int getNotFound() { return notFound.get(); }
+    public int getFailed() { return failed.get(); }
+    public Status getStatus() { return status; }
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+}
@@ -0,0 +1,26 @@
+package com.athar.postmanager.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a batched comment insert: one entry per submitted item, in submission order.
+ */
+public record CommentBatchResult(int created, int failed, List<Item> results) {
+
+    /** {@code id} is set for stored comments, {@code error} for rejected ones. */
+    public record Item(int index, Long id, String error) {
+
+        public static Item created(int index, Long id) {
+            return new Item(index, id, null);
+        }
+
+        public static Item failed(int index, String error) {
+            return new Item(index, null, error);
+        }
+    }
+
+    public static CommentBatchResult of(List<Item> results) {
+        int created = (int) results.stream().filter(item -> item.error() == null).count();
+        return new CommentBatchResult(created, results.size() - created, results);
+    }
+}
@@ -0,0 +1,9 @@
+package com.athar.postmanager.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of the comment export.
+ */
+public record CommentExportRow(Long id, Long postId, String author, String content, LocalDateTime createdAt) {
+}
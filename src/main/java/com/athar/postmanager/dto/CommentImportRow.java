@@ -0,0 +1,12 @@
+package com.athar.postmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.LocalDateTime;
+
+/**
+ * One comment in a bulk import file; the post must already exist. Comment ids are always newly assigned.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record CommentImportRow(Long postId, String author, String content, LocalDateTime createdAt) {
+}
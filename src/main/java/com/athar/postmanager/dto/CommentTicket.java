@@ -0,0 +1,22 @@
+package com.athar.postmanager.dto;
+
+/**
+ * Client-visible handle for a comment accepted by the asynchronous ingestion queue.
+ * {@code commentId} is set once the comment is stored, {@code error} if it was rejected.
+ */
+public record CommentTicket(String id, Status status, Long commentId, String error) {
+
+    public enum Status { PENDING, STORED, FAILED }
+
+    public static CommentTicket pending(String id) {
+        return new CommentTicket(id, Status.PENDING, null, null);
+    }
+
+    public CommentTicket stored(Long commentId) {
+        return new CommentTicket(id, Status.STORED, commentId, null);
+    }
+
+    public CommentTicket failed(String error) {
+        return new CommentTicket(id, Status.FAILED, null, error);
+    }
+}
@@ -0,0 +1,19 @@
+package com.athar.postmanager.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import. {@code resumedAfter} rows were skipped because an earlier run had
+ * already committed them; {@code completed} is false if the input could not be read to the end.
+ */
+public record ImportReport(String job,
+                           long rowsRead,
+                           long imported,
+                           long failed,
+                           long skipped,
+                           long resumedAfter,
+                           long elapsedMs,
+                           double rowsPerSecond,
+                           boolean completed,
+                           List<String> errors) {
+}
@@ -0,0 +1,33 @@
+package com.athar.postmanager.dto;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Keyset position in a (createdAt DESC, id DESC) ordered listing.
+ * Serialized as {@code <createdAt>,<id>}, e.g. {@code 2025-01-31T10:15:30.123456,42}.
+ */
+public record KeysetCursor(LocalDateTime createdAt, Long id) {
+
+    public static KeysetCursor parse(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Cursor cannot be empty");
+        }
+        int sep = value.lastIndexOf(',');
+        if (sep <= 0 || sep == value.length() - 1) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+        try {
+            LocalDateTime createdAt = LocalDateTime.parse(value.substring(0, sep).trim());
+            Long id = Long.valueOf(value.substring(sep + 1).trim());
+            return new KeysetCursor(createdAt, id);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return createdAt + "," + id;
+    }
+}
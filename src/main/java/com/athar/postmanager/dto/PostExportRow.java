@@ -0,0 +1,10 @@
+package com.athar.postmanager.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * One line of the post export. Deleted posts are included so incremental consumers see removals.
+ */
+public record PostExportRow(Long id, String title, String content, Integer likes, Boolean deleted,
+                            LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
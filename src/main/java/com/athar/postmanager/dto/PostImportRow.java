@@ -0,0 +1,15 @@
+package com.athar.postmanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.LocalDateTime;
+
+/**
+ * One post in a bulk import file. Only title and content are required; an id keeps the source
+ * system's id (so imported comments can refer to it), otherwise the database assigns one.
+ * The export format is accepted as-is; rows marked deleted are skipped.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record PostImportRow(Long id, String title, String content, Integer likes, Boolean deleted,
+                            LocalDateTime createdAt) {
+}
@@ -0,0 +1,22 @@
+package com.athar.postmanager.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * List-view projection of a post: no full content and no comment collection.
+ * Populated directly by JPQL constructor expressions in PostRepository.
+ */
+public record PostSummary(Long id,
+                          String title,
+                          String excerpt,
+                          Integer likes,
+                          Long commentCount,
+                          LocalDateTime createdAt) {
+
+    /** Number of content characters carried in {@link #excerpt()}. */
+    public static final int EXCERPT_LENGTH = 200;
+
+    public PostSummary withLikes(Integer likes) {
+        return new PostSummary(id, title, excerpt, likes, commentCount, createdAt);
+    }
+}
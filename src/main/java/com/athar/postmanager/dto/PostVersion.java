@@ -0,0 +1,21 @@
+package com.athar.postmanager.dto;
+
+import com.athar.postmanager.model.Post;
+
+/**
+ * The fields of a post detail response that change without its content: the entity version
+ * (bumped by edits and deletes), the like count, the comment count and the comments version
+ * (bumped by every comment insert or delete). Read by a primary key lookup that touches neither
+ * content nor comments, to answer conditional GETs cheaply.
+ */
+public record PostVersion(Long id, Long version, Integer likes, Long commentCount, Long commentsVersion) {
+
+    public static PostVersion of(Post post) {
+        return new PostVersion(post.getId(), post.getVersion(), post.getLikes(), post.getCommentCount(),
+                post.getCommentsVersion());
+    }
+
+    public PostVersion withLikes(Integer likes) {
+        return new PostVersion(id, version, likes, commentCount, commentsVersion);
+    }
+}
@@ -0,0 +1,14 @@
+package com.athar.postmanager.dto;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results.
+ * {@code totalHits} counts matches in the index, which may briefly include just-deleted posts.
+ */
+public record SearchPage<T>(List<T> items, long totalHits, int page, int size) {
+
+    public boolean hasMore() {
+        return (long) (page + 1) * size < totalHits;
+    }
+}
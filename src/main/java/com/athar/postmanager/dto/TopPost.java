@@ -0,0 +1,13 @@
+package com.athar.postmanager.dto;
+
+import java.util.Comparator;
+
+/**
+ * Leaderboard row: enough to render a "most liked" list without loading the post.
+ */
+public record TopPost(Long id, String title, long likes) {
+
+    /** Most liked first; ties broken by the older (lower) id so the order is total. */
+    public static final Comparator<TopPost> RANKING =
+            Comparator.comparingLong(TopPost::likes).reversed().thenComparing(TopPost::id);
+}
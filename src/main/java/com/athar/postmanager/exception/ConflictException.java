@@ -0,0 +1,14 @@
+package com.athar.postmanager.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a write collides with existing state (e.g. a username that is already taken).
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends RuntimeException {
+    public ConflictException() { super(); }
+    public ConflictException(String message) { super(message); }
+    public ConflictException(String message, Throwable cause) { super(message, cause); }
+}
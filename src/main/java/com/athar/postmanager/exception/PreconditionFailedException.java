@@ -0,0 +1,14 @@
+package com.athar.postmanager.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a conditional write (If-Match) targets a version that is no longer current.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException() { super(); }
+    public PreconditionFailedException(String message) { super(message); }
+    public PreconditionFailedException(String message, Throwable cause) { super(message, cause); }
+}
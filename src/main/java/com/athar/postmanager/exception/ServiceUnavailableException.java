@@ -0,0 +1,14 @@
+package com.athar.postmanager.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the server is temporarily overloaded and sheds the request instead of queueing it.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException() { super(); }
+    public ServiceUnavailableException(String message) { super(message); }
+    public ServiceUnavailableException(String message, Throwable cause) { super(message, cause); }
+}
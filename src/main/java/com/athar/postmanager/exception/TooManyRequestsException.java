@@ -0,0 +1,14 @@
+package com.athar.postmanager.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a bounded resource (e.g. a write queue) is full and the caller should back off.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException() { super(); }
+    public TooManyRequestsException(String message) { super(message); }
+    public TooManyRequestsException(String message, Throwable cause) { super(message, cause); }
+}
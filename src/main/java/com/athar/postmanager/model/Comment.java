@@ -1,18 +1,31 @@
 package com.athar.postmanager.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_post_created_id", columnList = "post_id, created_at, id")
+})
 public class Comment {
 
+    public static final String ID_GENERATOR_TABLE = "id_generators";
+    public static final String ID_GENERATOR_NAME = "comments";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled table ids (not IDENTITY) so Hibernate can batch comment inserts
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "comment_ids")
+    @TableGenerator(name = "comment_ids", table = ID_GENERATOR_TABLE,
+            pkColumnName = "gen_name", valueColumnName = "gen_value",
+            pkColumnValue = ID_GENERATOR_NAME, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    // Accepted on input ({"post": {"id": 1}}), rendered as postId so responses never walk back into the post
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private Post post; // this enables comment.setPost(post)
 
     private String author;
@@ -45,6 +58,9 @@ public class Comment {
     public Post getPost() { return post; }
     public void setPost(Post post) { this.post = post; } 
 
+    // Reads the FK from the proxy without initializing it
+    public Long getPostId() { return post != null ? post.getId() : null; }
+
     public String getAuthor() { return author; }
     public void setAuthor(String author) { this.author = author; }
 
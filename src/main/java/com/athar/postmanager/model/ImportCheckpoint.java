@@ -0,0 +1,34 @@
+package com.athar.postmanager.model;
+
+import jakarta.persistence.*;
+
+/**
+ * A range of input rows, by row number, that an import job has committed. Each range is inserted
+ * in the transaction that writes its rows, so a resumed job never writes them twice. Rows are only
+ * read and written by ImportService with plain SQL; the entity exists so the schema update creates
+ * the table.
+ */
+@Entity
+@Table(name = "import_checkpoints", indexes = @Index(name = "idx_import_checkpoints_job", columnList = "job"))
+public class ImportCheckpoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String job;
+
+    @Column(name = "first_row", nullable = false)
+    private long firstRow;
+
+    @Column(name = "last_row", nullable = false)
+    private long lastRow;
+
+    protected ImportCheckpoint() {}
+
+    public Long getId() { return id; }
+    public String getJob() { return job; }
+    public long getFirstRow() { return firstRow; }
+    public long getLastRow() { return lastRow; }
+}
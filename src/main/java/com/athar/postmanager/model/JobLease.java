@@ -0,0 +1,30 @@
+package com.athar.postmanager.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A named, time-limited lock on a background job, shared by every node through the database.
+ * Rows are only read and written by JobLeaseService with compare-and-set statements; the
+ * entity exists so the schema update creates the table.
+ */
+@Entity
+@Table(name = "job_leases")
+public class JobLease {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false, length = 128)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    protected JobLease() {}
+
+    public String getName() { return name; }
+    public String getOwner() { return owner; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+}
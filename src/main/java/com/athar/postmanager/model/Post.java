@@ -1,13 +1,27 @@
 package com.athar.postmanager.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Soft-deleted posts are invisible to every entity load and JPQL query through the
+ * {@code @SQLRestriction}; each index below leads with {@code deleted}, so the predicate it adds
+ * narrows the range scan instead of filtering rows after it. SoftDeletedPostPurger removes them
+ * physically once the retention period has passed.
+ */
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_deleted_created_id", columnList = "deleted, created_at, id"),
+        @Index(name = "idx_posts_deleted_likes_id", columnList = "deleted, likes, id"),
+        @Index(name = "idx_posts_deleted_deleted_at", columnList = "deleted, deleted_at")
+})
+@SQLRestriction("deleted = false")
 public class Post {
 
     @Id
@@ -21,9 +35,26 @@ public class Post {
     @NotBlank(message = "Content cannot be blank")
     private String content;
 
+    // Written only by LikeCounterService's batched UPDATE, never by an entity flush
+    @Column(updatable = false)
     private Integer likes;        // Nullable safe type
     private Boolean deleted;      // Nullable safe type
 
+    @Column(name = "deleted_at")
+    private LocalDateTime deletedAt;
+
+    // Written only by CommentService's relative UPDATEs and CommentCountReconciler, never by an entity flush
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private Long commentCount = 0L;
+
+    // Bumped by the same UPDATEs as comment_count, so the detail ETag changes with the comments
+    // list even when a delete and an add leave the count where it was
+    @JsonIgnore
+    @Column(name = "comments_version", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private Long commentsVersion = 0L;
+
     @Version
     private Long version;
 
@@ -63,6 +94,24 @@ public class Post {
         this.updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * Detached copy with a different like count. Lets readers overlay pending likes
+     * without mutating a post instance shared through the cache.
+     */
+    public Post withLikes(Integer likes) {
+        Post copy = new Post(id, title, content);
+        copy.likes = likes;
+        copy.deleted = deleted;
+        copy.deletedAt = deletedAt;
+        copy.commentCount = commentCount;
+        copy.commentsVersion = commentsVersion;
+        copy.version = version;
+        copy.createdAt = createdAt;
+        copy.updatedAt = updatedAt;
+        copy.comments = comments;
+        return copy;
+    }
+
     // ------------------------------------------------------
     // LIFECYCLE METHODS
     // ------------------------------------------------------
@@ -71,21 +120,6 @@ public class Post {
         this.updatedAt = LocalDateTime.now();
     }
 
-    // ------------------------------------------------------
-    // LIKE / UNLIKE UTILITIES (safe null handling)
-    // ------------------------------------------------------
-    public synchronized void incrementLikes() {
-        if (this.likes == null) this.likes = 0;
-        this.likes++;
-    }
-
-    public synchronized void decrementLikes() {
-        if (this.likes == null) this.likes = 0;
-        if (this.likes > 0) {
-            this.likes--;
-        }
-    }
-
     // ------------------------------------------------------
     // COMMENT MANAGEMENT
     // ------------------------------------------------------
@@ -104,6 +138,7 @@ public class Post {
     // ------------------------------------------------------
     public void markDeleted() {
         this.deleted = true;
+        this.deletedAt = LocalDateTime.now();
     }
 
     public boolean isActive() {
@@ -131,9 +166,18 @@ public class Post {
     public Integer getLikes() { return likes; }
     public void setLikes(Integer likes) { this.likes = likes; }
 
+    public Long getCommentCount() { return commentCount; }
+    public void setCommentCount(Long commentCount) { this.commentCount = commentCount; }
+
+    public Long getCommentsVersion() { return commentsVersion; }
+    public void setCommentsVersion(Long commentsVersion) { this.commentsVersion = commentsVersion; }
+
     public Boolean isDeleted() { return deleted; }
     public void setDeleted(Boolean deleted) { this.deleted = deleted; }
 
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
+
     public Long getVersion() { return version; }
     public void setVersion(Long version) { this.version = version; }
 
@@ -5,20 +5,52 @@ import com.athar.postmanager.model.Post;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    // Post ids of the newest comments, newest first (may repeat); walks the primary key backwards
+    @Query("SELECT c.post.id FROM Comment c ORDER BY c.id DESC")
+    List<Long> findRecentlyCommentedPostIds(Pageable pageable);
+
     // Fetch all comments for a post (non-paginated)
     List<Comment> findByPost(Post post);
 
     // Fetch comments with pagination, ordered by creation time (newest first)
     Page<Comment> findByPostOrderByCreatedAtDesc(Post post, Pageable pageable);
 
+    // Keyset pagination by post id (no parent fetch, no COUNT), newest first. The join to the post
+    // (a primary key lookup) applies its soft-delete restriction: a deleted post's comments stay
+    // in the table until it is purged but are no longer served.
+    @Query("SELECT c FROM Comment c JOIN c.post p WHERE p.id = :postId ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findPageByPostId(@Param("postId") Long postId, Pageable pageable);
+
+    @Query("SELECT c FROM Comment c JOIN c.post p WHERE p.id = :postId "
+            + "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) "
+            + "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findPageByPostIdAfter(@Param("postId") Long postId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+
     // Delete all comments belonging to a specific post
     void deleteByPost(Post post);
-    
-    void deleteAllByPostIsNull();
+
+    // Delete one comment without loading it; the row count tells concurrent deleters which one won
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.id = :id")
+    int deleteByIdInBulk(@Param("id") Long id);
+
+    // Bulk-delete up to 'limit' comments of a post in one statement, without loading them
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM comments WHERE post_id = :postId LIMIT :limit", nativeQuery = true)
+    int deleteChunkByPostId(@Param("postId") Long postId, @Param("limit") int limit);
 }
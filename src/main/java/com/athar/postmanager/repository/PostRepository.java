@@ -1,26 +1,149 @@
 package com.athar.postmanager.repository;
 
+import com.athar.postmanager.dto.PostSummary;
+import com.athar.postmanager.dto.PostVersion;
+import com.athar.postmanager.dto.TopPost;
 import com.athar.postmanager.model.Post;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Collection;
+import java.util.Optional;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface PostRepository extends JpaRepository<Post, Long> {
 
+    /**
+     * Projection used by list views: excerpt instead of content, and the denormalized comment
+     * count instead of comments, so listing never reads the comments table.
+     */
+    String SUMMARY_SELECT = "SELECT new com.athar.postmanager.dto.PostSummary(p.id, p.title, "
+            + "SUBSTRING(p.content, 1, " + PostSummary.EXCERPT_LENGTH + "), p.likes, "
+            + "p.commentCount, p.createdAt) FROM Post p ";
+
 	/**
-     * Fetches top liked posts, excluding soft-deleted ones.
-     * Sorted in descending order of like count.
+     * Fetches top liked posts as ranking entries (id, title, likes), never loading content;
+     * soft-deleted ones are excluded by the entity's SQL restriction.
+     * Sorted in descending order of like count; the page size bounds the result (LIMIT).
+     * Backed by the (deleted, likes, id) index.
+     */
+    @Query("SELECT new com.athar.postmanager.dto.TopPost(p.id, p.title, CAST(COALESCE(p.likes, 0) AS long)) "
+            + "FROM Post p ORDER BY p.likes DESC, p.id ASC")
+    List<TopPost> findTopLikedPosts(Pageable pageable);
+
+    /**
+     * Ids of the top liked posts, read from the (deleted, likes, id) index alone; used to pick
+     * posts to pre-warm in the cache.
      */
-    @Query("SELECT p FROM Post p WHERE p.deleted = false ORDER BY p.likes DESC")
-    List<Post> findTopLikedPosts();
+    @Query("SELECT p.id FROM Post p ORDER BY p.likes DESC, p.id ASC")
+    List<Long> findTopLikedIds(Pageable pageable);
 
     /**
      * Fetches posts that are not marked as deleted.
      */
-    @Query("SELECT p FROM Post p WHERE p.deleted = false")
+    @Query("SELECT p FROM Post p")
     List<Post> findAllActivePosts();
+
+    /**
+     * Returns which of the given ids belong to existing, non-deleted posts (one query).
+     */
+    @Query("SELECT p.id FROM Post p WHERE p.id IN :ids")
+    List<Long> findActiveIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Summaries for the given ids, used to hydrate search hits; order is not preserved.
+     */
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<PostSummary> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Next batch of active posts in id order, strictly after {@code afterId}; used to walk the
+     * whole table in bounded chunks (e.g. search reindex) without an OFFSET scan.
+     */
+    @Query("SELECT p FROM Post p WHERE p.id > :afterId ORDER BY p.id")
+    List<Post> findActiveAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Loads a post together with its comments in one query, for the detail view.
+     */
+    @EntityGraph(attributePaths = "comments")
+    Optional<Post> findWithCommentsById(Long id);
+
+    /**
+     * Title and persisted like count of an active post, for the like and unlike paths;
+     * reads neither content nor comments.
+     */
+    @Query("SELECT new com.athar.postmanager.dto.TopPost(p.id, p.title, CAST(COALESCE(p.likes, 0) AS long)) "
+            + "FROM Post p WHERE p.id = :id")
+    Optional<TopPost> findRankingEntryById(@Param("id") Long id);
+
+    /**
+     * Version, like count and comment count of an active post, without its content or comments;
+     * the validator for conditional GETs of the detail view.
+     */
+    @Query("SELECT new com.athar.postmanager.dto.PostVersion(p.id, p.version, p.likes, p.commentCount, "
+            + "p.commentsVersion) FROM Post p WHERE p.id = :id")
+    Optional<PostVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Loads several posts together with their comments in one query, for bulk cache loads.
+     */
+    @EntityGraph(attributePaths = "comments")
+    List<Post> findWithCommentsByIdIn(Collection<Long> ids);
+
+    /**
+     * First page of the active-post feed, newest first.
+     * Backed by the (deleted, created_at, id) index.
+     */
+    @Query(SUMMARY_SELECT + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findActivePage(Pageable pageable);
+
+    /**
+     * Next page of the active-post feed, strictly after the given (createdAt, id) keyset position.
+     */
+    @Query(SUMMARY_SELECT + "WHERE (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) "
+            + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findActivePageAfter(@Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+
+    /**
+     * Adds {@code delta} to a post's comment count in place, so concurrent writers never overwrite
+     * each other, and bumps its comments version for the detail ETag. Must run in the transaction
+     * that inserted or deleted the comments.
+     */
+    @Modifying
+    @Query("UPDATE Post p SET p.commentCount = p.commentCount + :delta, "
+            + "p.commentsVersion = p.commentsVersion + 1 WHERE p.id = :id")
+    int adjustCommentCount(@Param("id") Long id, @Param("delta") long delta);
+
+    /**
+     * Soft-deletes a post with a single statement. The version is bumped so a concurrent update
+     * of the loaded entity fails its optimistic check instead of writing to a deleted post.
+     *
+     * @return 0 if no active post has this id
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Post p SET p.deleted = true, p.deletedAt = :now, p.updatedAt = :now, "
+            + "p.version = p.version + 1 WHERE p.id = :id AND p.deleted = false")
+    int softDelete(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Deletes a post row with a single statement, skipping the load and cascade of the entity.
+     * Native, so soft-deleted rows are matched too. Comments must already be gone (see PostDeletionService).
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM posts WHERE id = :id", nativeQuery = true)
+    int deleteByIdInBulk(@Param("id") Long id);
 }
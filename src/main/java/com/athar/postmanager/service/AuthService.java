@@ -1,42 +1,132 @@
 package com.athar.postmanager.service;
 
+import com.athar.postmanager.exception.ConflictException;
 import com.athar.postmanager.model.User;
 import com.athar.postmanager.repository.UserRepository;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.sql.SQLException;
 import java.util.Optional;
 import java.util.Set;
 
 @Service
+@Timed(value = "service.calls", histogram = true)
 public class AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordHasher passwordHasher;
+    private final LoginThrottle loginThrottle;
+    private final VerifiedCredentialCache credentialCache;
+    private final UsernameFilter usernameFilter;
 
-    public AuthService(UserRepository userRepository) {
+    public AuthService(UserRepository userRepository,
+                       PasswordHasher passwordHasher,
+                       LoginThrottle loginThrottle,
+                       VerifiedCredentialCache credentialCache,
+                       UsernameFilter usernameFilter) {
         this.userRepository = userRepository;
+        this.passwordHasher = passwordHasher;
+        this.loginThrottle = loginThrottle;
+        this.credentialCache = credentialCache;
+        this.usernameFilter = usernameFilter;
     }
 
+    // Insert first and let the unique index arbitrate; a pre-check would be one more round
+    // trip and still race with a concurrent signup for the same name
     public User register(String username, String password) {
-        if (userRepository.existsByUsername(username)) {
-            throw new IllegalArgumentException("Username already exists");
-        }
-        String encodedPassword = passwordEncoder.encode(password);
+        validateCredentials(username, password);
+        String encodedPassword = passwordHasher.encode(password);
         User newUser = new User(null, username, encodedPassword, Set.of("USER"));
-        return userRepository.save(newUser);
+        User saved;
+        try {
+            saved = userRepository.save(newUser);
+        } catch (DataIntegrityViolationException e) {
+            // Anything but a duplicate key (a NULL, an over-long value) says nothing about whether
+            // the name is taken and must not reach the filter. The index name is not checked, since
+            // existing schemas keep whatever name it was created with; the lookup confirms it instead.
+            if (!isDuplicateKey(e) || !userRepository.existsByUsername(username)) throw e;
+            usernameFilter.add(username);
+            throw new ConflictException("Username already exists");
+        }
+        usernameFilter.add(username);
+        return saved;
+    }
+
+    // MySQL reports a duplicate key as SQL state 23000 with error 1062; H2 (tests, load test) as 23505
+    static boolean isDuplicateKey(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql) {
+                return ("23000".equals(sql.getSQLState()) && sql.getErrorCode() == 1062)
+                        || "23505".equals(sql.getSQLState());
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Answers from the in-memory filter when it can rule the name out; otherwise asks the database.
+     */
+    public boolean isUsernameAvailable(String username) {
+        if (username == null || username.isBlank()) {
+            throw new IllegalArgumentException("Username is required");
+        }
+        if (!usernameFilter.mightBeTaken(username)) {
+            return true;
+        }
+        return !userRepository.existsByUsername(username);
     }
 
     public User login(String username, String password) {
+        return login(username, password, null);
+    }
+
+    // Throttled before the lookup and the hash, so rejected attempts cost no DB or CPU time
+    public User login(String username, String password, String clientAddress) {
+        validateCredentials(username, password);
+        loginThrottle.acquire(username, clientAddress);
+
         Optional<User> userOpt = userRepository.findByUsername(username);
         if (userOpt.isEmpty()) {
             throw new IllegalArgumentException("Invalid credentials");
         }
 
         User user = userOpt.get();
-        if (!passwordEncoder.matches(password, user.getPassword())) {
-            throw new IllegalArgumentException("Invalid credentials");
+        if (!credentialCache.isVerified(username, password, user.getPassword())) {
+            if (!passwordHasher.matches(password, user.getPassword())) {
+                throw new IllegalArgumentException("Invalid credentials");
+            }
+            upgradeHash(user, password);
+            credentialCache.remember(username, password, user.getPassword());
         }
+        loginThrottle.reset(username);
         return user;
     }
+
+    // Rehash to the current algorithm and cost while the plaintext is at hand; a failure
+    // here must not fail the login, the upgrade is simply retried on the next one
+    private void upgradeHash(User user, String password) {
+        if (!passwordHasher.needsUpgrade(user.getPassword())) {
+            return;
+        }
+        String previous = user.getPassword();
+        try {
+            user.setPassword(passwordHasher.encode(password));
+            userRepository.save(user);
+        } catch (RuntimeException e) {
+            user.setPassword(previous);
+            log.warn("Could not upgrade password hash for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
+
+    private void validateCredentials(String username, String password) {
+        if (username == null || username.isBlank() || password == null || password.isEmpty()) {
+            throw new IllegalArgumentException("Username and password are required");
+        }
+    }
 }
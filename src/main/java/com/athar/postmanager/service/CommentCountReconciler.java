@@ -0,0 +1,115 @@
+package com.athar.postmanager.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Repairs drift in {@code posts.comment_count}, which CommentService maintains with relative
+ * updates in the same transaction as each insert and delete.
+ *
+ * Walks the posts table in id order, {@code chunk-size} posts per step, comparing each stored
+ * count with a COUNT over the (post_id, ...) comment index. Drifted rows are corrected with a
+ * compare-and-set on the value read, so a comment added or removed in the meantime is never
+ * overwritten; that row is simply left for the next pass. The first pass after the column is
+ * added backfills it.
+ */
+@Service
+public class CommentCountReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentCountReconciler.class);
+
+    static final String SCAN_SQL =
+            "SELECT p.id, p.comment_count, (SELECT COUNT(*) FROM comments c WHERE c.post_id = p.id) AS actual "
+                    + "FROM posts p WHERE p.id > ? ORDER BY p.id LIMIT ?";
+    static final String REPAIR_SQL =
+            "UPDATE posts SET comment_count = ? WHERE id = ? AND comment_count = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostCache postCache;
+    private final Counter repairedCounter;
+    private final int chunkSize;
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    public CommentCountReconciler(JdbcTemplate jdbcTemplate,
+                                  PostCache postCache,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${post.comment-count.reconcile-chunk-size:1000}") int chunkSize) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("Reconcile chunk size must be positive");
+        this.jdbcTemplate = jdbcTemplate;
+        this.postCache = postCache;
+        this.repairedCounter = Counter.builder("posts.comment_count.repaired")
+                .description("Post comment counts corrected by reconciliation")
+                .register(meterRegistry);
+        this.chunkSize = chunkSize;
+    }
+
+    private record Row(long id, long stored, long actual) {}
+
+    @Scheduled(initialDelayString = "${post.comment-count.reconcile-initial-delay-ms:60000}",
+               fixedDelayString = "${post.comment-count.reconcile-interval-ms:3600000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Comment count reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs one full pass over the posts table.
+     *
+     * @return how many posts had their count corrected, or -1 if a pass was already running
+     */
+    public long reconcile() {
+        if (!runLock.tryLock()) return -1;
+        try {
+            long repaired = 0;
+            long afterId = 0;
+            while (true) {
+                List<Row> rows = jdbcTemplate.query(SCAN_SQL,
+                        (rs, i) -> new Row(rs.getLong(1), rs.getLong(2), rs.getLong(3)), afterId, chunkSize);
+                repaired += repair(rows);
+                if (rows.size() < chunkSize) break;
+                afterId = rows.get(rows.size() - 1).id();
+            }
+            if (repaired > 0) {
+                log.info("Corrected the comment count of {} posts", repaired);
+            }
+            return repaired;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private int repair(List<Row> rows) {
+        List<Object[]> updates = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        for (Row row : rows) {
+            if (row.stored() != row.actual()) {
+                updates.add(new Object[]{row.actual(), row.id(), row.stored()});
+                ids.add(row.id());
+            }
+        }
+        if (updates.isEmpty()) return 0;
+
+        int[] counts = jdbcTemplate.batchUpdate(REPAIR_SQL, updates);
+        List<Long> repaired = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            // SUCCESS_NO_INFO (-2) from a rewritten batch still means the statement ran
+            if (counts[i] != 0) repaired.add(ids.get(i));
+        }
+        postCache.invalidateAll(repaired);
+        repairedCounter.increment(repaired.size());
+        return repaired.size();
+    }
+}
@@ -1,37 +1,175 @@
 package com.athar.postmanager.service;
 
+import com.athar.postmanager.dto.CommentBatchResult;
+import com.athar.postmanager.dto.CursorPage;
+import com.athar.postmanager.dto.KeysetCursor;
 import com.athar.postmanager.model.Comment;
 import com.athar.postmanager.model.Post;
 import com.athar.postmanager.repository.CommentRepository;
 import com.athar.postmanager.repository.PostRepository;
 
-import org.springframework.data.domain.Page;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.calls", histogram = true)
 public class CommentService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private final CommentRepository commentRepository;
     private final PostRepository postRepository;
+    private final PostCache postCache;
+    private final TransactionTemplate transactionTemplate;
 
-    public CommentService(CommentRepository commentRepository, PostRepository postRepository) {
+    public CommentService(CommentRepository commentRepository, PostRepository postRepository,
+                          PostCache postCache, PlatformTransactionManager transactionManager) {
         this.commentRepository = commentRepository;
         this.postRepository = postRepository;
+        this.postCache = postCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     public Comment addComment(Comment comment) {
-        if (comment.getAuthor() == null || comment.getAuthor().trim().isEmpty()) {
-            throw new IllegalArgumentException("Author cannot be empty");
+        validate(comment);
+        Long postId = comment.getPostId();
+        if (postId == null) {
+            throw new IllegalArgumentException("Post ID is required");
         }
-        if (comment.getContent() == null || comment.getContent().trim().isEmpty()) {
-            throw new IllegalArgumentException("Content cannot be empty");
+        if (postRepository.findActiveIds(List.of(postId)).isEmpty()) {
+            throw new IllegalArgumentException("Post not found");
+        }
+        // Reference by id only; the incoming post stub is not a managed entity
+        comment.setPost(postRepository.getReferenceById(postId));
+        // The comment and its post's comment count commit together
+        Comment saved = transactionTemplate.execute(status -> {
+            Comment stored = commentRepository.save(comment);
+            postRepository.adjustCommentCount(postId, 1);
+            return stored;
+        });
+        // Cached post detail embeds its comments
+        postCache.invalidate(saved.getPostId());
+        return saved;
+    }
+
+    // ------------------------------------------------------
+    // BATCH INSERT
+    // ------------------------------------------------------
+
+    /**
+     * Validates all comments in one pass (including a single post-existence query) and inserts
+     * the valid ones in one transaction as JDBC batches. Invalid items are reported per index
+     * and never fail the rest of the batch.
+     */
+    public CommentBatchResult addComments(List<Comment> comments) {
+        return addComments(comments, () -> { }, index -> { });
+    }
+
+    /**
+     * As {@link #addComments(List)}, running caller work atomically with the inserts (the bulk
+     * import records its checkpoint this way): {@code inBatchTransaction} runs in the transaction
+     * inserting the whole batch, {@code inItemTransaction} in each row's transaction when the
+     * batch falls back to row-by-row inserts, with the item's index.
+     */
+    public CommentBatchResult addComments(List<Comment> comments, Runnable inBatchTransaction,
+                                          IntConsumer inItemTransaction) {
+        if (comments == null || comments.isEmpty()) {
+            throw new IllegalArgumentException("Comments cannot be empty");
+        }
+        if (comments.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " comments per batch");
+        }
+
+        CommentBatchResult.Item[] results = new CommentBatchResult.Item[comments.size()];
+        Map<Integer, Comment> valid = new LinkedHashMap<>();
+        Set<Long> postIds = new HashSet<>();
+        for (int i = 0; i < comments.size(); i++) {
+            Comment comment = comments.get(i);
+            try {
+                validate(comment);
+                if (comment.getPostId() == null) {
+                    throw new IllegalArgumentException("Post ID is required");
+                }
+                valid.put(i, comment);
+                postIds.add(comment.getPostId());
+            } catch (IllegalArgumentException e) {
+                results[i] = CommentBatchResult.Item.failed(i, e.getMessage());
+            }
+        }
+
+        Set<Long> activePosts = postIds.isEmpty()
+                ? Collections.emptySet()
+                : new HashSet<>(postRepository.findActiveIds(postIds));
+        valid.entrySet().removeIf(entry -> {
+            Comment comment = entry.getValue();
+            if (!activePosts.contains(comment.getPostId())) {
+                results[entry.getKey()] = CommentBatchResult.Item.failed(entry.getKey(), "Post not found");
+                return true;
+            }
+            // Reference by id only; the incoming post stub is not a managed entity
+            comment.setId(null);
+            comment.setPost(postRepository.getReferenceById(comment.getPostId()));
+            return false;
+        });
+
+        if (!valid.isEmpty()) {
+            insertAll(valid, results, inBatchTransaction, inItemTransaction);
+        }
+
+        activePosts.forEach(postCache::invalidate);
+        return CommentBatchResult.of(List.of(results));
+    }
+
+    private void insertAll(Map<Integer, Comment> valid, CommentBatchResult.Item[] results,
+                           Runnable inBatchTransaction, IntConsumer inItemTransaction) {
+        try {
+            List<Comment> saved = transactionTemplate.execute(status -> {
+                List<Comment> stored = commentRepository.saveAll(new ArrayList<>(valid.values()));
+                // One relative UPDATE per post rather than per comment
+                Map<Long, Long> perPost = valid.values().stream()
+                        .collect(Collectors.groupingBy(Comment::getPostId, Collectors.counting()));
+                perPost.forEach(postRepository::adjustCommentCount);
+                inBatchTransaction.run();
+                return stored;
+            });
+            int i = 0;
+            for (Integer index : valid.keySet()) {
+                results[index] = CommentBatchResult.Item.created(index, saved.get(i++).getId());
+            }
+        } catch (DataAccessException e) {
+            // Fall back to row-by-row inserts so only the offending items are reported
+            valid.forEach((index, comment) -> {
+                try {
+                    comment.setId(null);
+                    Comment stored = transactionTemplate.execute(status -> {
+                        Comment row = commentRepository.save(comment);
+                        postRepository.adjustCommentCount(comment.getPostId(), 1);
+                        inItemTransaction.accept(index);
+                        return row;
+                    });
+                    results[index] = CommentBatchResult.Item.created(index, stored.getId());
+                } catch (DataAccessException rowError) {
+                    results[index] = CommentBatchResult.Item.failed(index, "Could not store comment");
+                }
+            });
         }
-        return commentRepository.save(comment);
     }
 
     public List<Comment> getCommentsByPost(Long postId, int page, int size) {
@@ -41,17 +179,61 @@ public class CommentService {
                 .getContent();
     }
     
+    // Keyset variant: (createdAt, id) cursor, queried by post_id directly, no COUNT query
+    public CursorPage<Comment> getCommentsPage(Long postId, String after, int limit) {
+        if (postId == null || postId <= 0) {
+            throw new IllegalArgumentException("Invalid post ID");
+        }
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        // One extra row tells us whether there is a next page
+        PageRequest window = PageRequest.of(0, limit + 1);
+        List<Comment> rows;
+        if (after == null || after.isBlank()) {
+            rows = commentRepository.findPageByPostId(postId, window);
+        } else {
+            KeysetCursor cursor = KeysetCursor.parse(after);
+            rows = commentRepository.findPageByPostIdAfter(postId, cursor.createdAt(), cursor.id(), window);
+        }
+        if (rows == null) {
+            rows = Collections.emptyList();
+        }
+
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Comment> items = rows.subList(0, limit);
+        Comment last = items.get(items.size() - 1);
+        return new CursorPage<>(items, new KeysetCursor(last.getCreatedAt(), last.getId()).toString());
+    }
+
     public boolean deleteComment(Long id) {
         Optional<Comment> existing = commentRepository.findById(id);
-        if (existing.isPresent()) {
-            commentRepository.delete(existing.get());
-            return true;
+        if (existing.isEmpty()) {
+            return false;
         }
-        return false;
+        Long postId = existing.get().getPostId();
+        // Only the deleter that actually removed the row decrements the count
+        Boolean deleted = transactionTemplate.execute(status -> {
+            if (commentRepository.deleteByIdInBulk(id) == 0) return false;
+            postRepository.adjustCommentCount(postId, -1);
+            return true;
+        });
+        postCache.invalidate(postId);
+        return Boolean.TRUE.equals(deleted);
     }
     
-    @Scheduled(cron = "0 0 * * * *")
-    public void cleanOrphanComments() {
-        commentRepository.deleteAllByPostIsNull();
+    void validate(Comment comment) {
+        if (comment == null) {
+            throw new IllegalArgumentException("Comment cannot be null");
+        }
+        if (comment.getAuthor() == null || comment.getAuthor().trim().isEmpty()) {
+            throw new IllegalArgumentException("Author cannot be empty");
+        }
+        if (comment.getContent() == null || comment.getContent().trim().isEmpty()) {
+            throw new IllegalArgumentException("Content cannot be empty");
+        }
     }
 }
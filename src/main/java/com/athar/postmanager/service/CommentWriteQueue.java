@@ -0,0 +1,195 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.dto.CommentBatchResult;
+import com.athar.postmanager.dto.CommentTicket;
+import com.athar.postmanager.exception.TooManyRequestsException;
+import com.athar.postmanager.model.Comment;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous comment ingestion with group commit.
+ *
+ * Requests are validated, appended to a bounded queue and acknowledged with a ticket.
+ * A single writer thread drains the queue in batches of up to {@code batchSize} comments,
+ * waiting at most {@code linger} for a batch to fill, and stores each batch through
+ * {@link CommentService#addComments(List)} in one transaction. A full queue is reported as
+ * {@link TooManyRequestsException}; on shutdown, intake stops and the queue is drained, and
+ * tickets for anything the writer could not take by the drain timeout are marked failed.
+ */
+@Service
+public class CommentWriteQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(CommentWriteQueue.class);
+
+    private final CommentService commentService;
+    private final BlockingQueue<Pending> queue;
+    private final int batchSize;
+    private final long lingerNanos;
+    private final Duration drainTimeout;
+    private final Cache<String, CommentTicket> tickets;
+
+    private volatile boolean accepting = true;
+    private volatile boolean running;
+    private Thread writer;
+
+    public CommentWriteQueue(CommentService commentService,
+                             MeterRegistry meterRegistry,
+                             @Value("${post.comments.async.queue-capacity:10000}") int capacity,
+                             @Value("${post.comments.async.batch-size:200}") int batchSize,
+                             @Value("${post.comments.async.linger:20ms}") Duration linger,
+                             @Value("${post.comments.async.drain-timeout:30s}") Duration drainTimeout,
+                             @Value("${post.comments.async.ticket-ttl:10m}") Duration ticketTtl) {
+        if (capacity <= 0 || batchSize <= 0 || batchSize > CommentService.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Invalid async comment queue configuration");
+        }
+        this.commentService = commentService;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.lingerNanos = linger.toNanos();
+        this.drainTimeout = drainTimeout;
+        this.tickets = Caffeine.newBuilder().expireAfterWrite(ticketTtl).build();
+        meterRegistry.gauge("comments.async.queue.depth", queue, BlockingQueue::size);
+    }
+
+    // ------------------------------------------------------
+    // INTAKE
+    // ------------------------------------------------------
+    public CommentTicket submit(Comment comment) {
+        commentService.validate(comment);
+        if (comment.getPostId() == null) {
+            throw new IllegalArgumentException("Post ID is required");
+        }
+        if (!accepting) {
+            throw new IllegalStateException("Comment queue is shutting down");
+        }
+
+        CommentTicket ticket = CommentTicket.pending(UUID.randomUUID().toString());
+        tickets.put(ticket.id(), ticket);
+        Pending pending = new Pending(ticket, comment);
+        if (!queue.offer(pending)) {
+            tickets.invalidate(ticket.id());
+            throw new TooManyRequestsException("Comment queue is full, retry later");
+        }
+        // Shutdown may have begun after the check above and the writer may already have drained
+        // and exited; take the item back unless the writer got it
+        if (!accepting && queue.remove(pending)) {
+            tickets.invalidate(ticket.id());
+            throw new IllegalStateException("Comment queue is shutting down");
+        }
+        return ticket;
+    }
+
+    public Optional<CommentTicket> getTicket(String ticketId) {
+        return Optional.ofNullable(ticketId == null ? null : tickets.getIfPresent(ticketId));
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    // ------------------------------------------------------
+    // WRITER
+    // ------------------------------------------------------
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "comment-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private void writeLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                if (nextBatch(batch)) {
+                    commit(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Comment writer failed on a batch of {}", batch.size(), e);
+                batch.forEach(p -> tickets.put(p.ticket().id(), p.ticket().failed("Could not store comment")));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Blocks for the first item, then lingers briefly so concurrent requests share one commit
+    boolean nextBatch(List<Pending> batch) throws InterruptedException {
+        Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return false;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return true;
+    }
+
+    void commit(List<Pending> batch) {
+        List<Comment> comments = batch.stream().map(Pending::comment).toList();
+        CommentBatchResult result = commentService.addComments(comments);
+        for (CommentBatchResult.Item item : result.results()) {
+            CommentTicket ticket = batch.get(item.index()).ticket();
+            tickets.put(ticket.id(), item.error() == null ? ticket.stored(item.id()) : ticket.failed(item.error()));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        accepting = false;
+        running = false;
+        if (writer != null) {
+            writer.join(drainTimeout.toMillis());
+            if (writer.isAlive()) {
+                log.warn("Comment writer did not drain within {}, {} comments left", drainTimeout, queue.size());
+                writer.interrupt();
+            }
+        }
+        failLeftovers();
+    }
+
+    // Whatever the writer did not take will never be stored; resolve those tickets instead of
+    // leaving them pending
+    private void failLeftovers() {
+        List<Pending> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        if (!leftovers.isEmpty()) {
+            log.warn("Failing {} queued comments that were not stored before shutdown", leftovers.size());
+            leftovers.forEach(p -> tickets.put(p.ticket().id(), p.ticket().failed("Could not store comment")));
+        }
+    }
+
+    record Pending(CommentTicket ticket, Comment comment) {}
+}
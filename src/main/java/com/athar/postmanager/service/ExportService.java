@@ -0,0 +1,141 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.config.ExportDataSourceConfig;
+import com.athar.postmanager.dto.CommentExportRow;
+import com.athar.postmanager.dto.PostExportRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes posts and comments as NDJSON (one JSON object per line) straight from a database cursor.
+ *
+ * Rows are read with plain JDBC on the export pool (see {@link ExportDataSourceConfig}) through a
+ * forward-only stream with a fixed fetch size and written out one at a time, so memory use does
+ * not depend on the table size and nothing enters a persistence context. The SQL bypasses the
+ * soft-delete restriction, so post exports still carry posts deleted but not yet purged. Ranges
+ * are half-open, {@code [from, to)}, which lets consecutive incremental exports line up exactly.
+ */
+@Service
+public class ExportService {
+
+    public enum PostTimestamp { CREATED_AT, UPDATED_AT }
+
+    static final LocalDateTime MIN_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    static final LocalDateTime MAX_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Rows per round trip (MySQL needs useCursorFetch, set on the export pool only, to honour it). */
+    static final int FETCH_SIZE = 1000;
+
+    private static final String POST_SELECT =
+            "SELECT id, title, content, likes, deleted, created_at, updated_at FROM posts ";
+    private static final String POSTS_BY_CREATED_AT =
+            POST_SELECT + "WHERE created_at >= ? AND created_at < ? ORDER BY id";
+    private static final String POSTS_BY_UPDATED_AT =
+            POST_SELECT + "WHERE updated_at >= ? AND updated_at < ? ORDER BY id";
+    private static final String COMMENTS_BY_CREATED_AT =
+            "SELECT id, post_id, author, content, created_at FROM comments "
+                    + "WHERE created_at >= ? AND created_at < ? ORDER BY id";
+
+    private static final RowMapper<PostExportRow> POST_ROW = (rs, rowNum) -> new PostExportRow(
+            rs.getLong("id"), rs.getString("title"), rs.getString("content"),
+            rs.getObject("likes", Integer.class), rs.getObject("deleted", Boolean.class),
+            toLocalDateTime(rs.getTimestamp("created_at")), toLocalDateTime(rs.getTimestamp("updated_at")));
+
+    private static final RowMapper<CommentExportRow> COMMENT_ROW = (rs, rowNum) -> new CommentExportRow(
+            rs.getLong("id"), rs.getLong("post_id"), rs.getString("author"), rs.getString("content"),
+            toLocalDateTime(rs.getTimestamp("created_at")));
+
+    private final JdbcTemplate exportJdbc;
+    private final ObjectWriter jsonWriter;
+
+    @Autowired
+    public ExportService(@Qualifier(ExportDataSourceConfig.EXPORT_DATA_SOURCE) DataSource exportDataSource,
+                         ObjectMapper objectMapper) {
+        this(new JdbcTemplate(exportDataSource), objectMapper);
+    }
+
+    ExportService(JdbcTemplate exportJdbc, ObjectMapper objectMapper) {
+        this.exportJdbc = exportJdbc;
+        this.exportJdbc.setFetchSize(FETCH_SIZE);
+        this.jsonWriter = objectMapper.writer();
+    }
+
+    // ------------------------------------------------------
+    // EXPORTS
+    // ------------------------------------------------------
+
+    /**
+     * @return number of posts written
+     */
+    public long exportPosts(LocalDateTime from, LocalDateTime to, PostTimestamp by, boolean gzip, OutputStream out) {
+        LocalDateTime start = from == null ? MIN_TIME : from;
+        LocalDateTime end = to == null ? MAX_TIME : to;
+        validateRange(start, end);
+        String sql = by == PostTimestamp.UPDATED_AT ? POSTS_BY_UPDATED_AT : POSTS_BY_CREATED_AT;
+        try (Stream<PostExportRow> rows = exportJdbc.queryForStream(sql, POST_ROW,
+                Timestamp.valueOf(start), Timestamp.valueOf(end))) {
+            return writeLines(rows.iterator(), gzip, out);
+        }
+    }
+
+    /**
+     * @return number of comments written
+     */
+    public long exportComments(LocalDateTime from, LocalDateTime to, boolean gzip, OutputStream out) {
+        LocalDateTime start = from == null ? MIN_TIME : from;
+        LocalDateTime end = to == null ? MAX_TIME : to;
+        validateRange(start, end);
+        try (Stream<CommentExportRow> rows = exportJdbc.queryForStream(COMMENTS_BY_CREATED_AT, COMMENT_ROW,
+                Timestamp.valueOf(start), Timestamp.valueOf(end))) {
+            return writeLines(rows.iterator(), gzip, out);
+        }
+    }
+
+    public void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+    }
+
+    private long writeLines(Iterator<?> rows, boolean gzip, OutputStream out) {
+        long count = 0;
+        try {
+            OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+            BufferedOutputStream buffered = new BufferedOutputStream(target, BUFFER_SIZE);
+            while (rows.hasNext()) {
+                buffered.write(jsonWriter.writeValueAsBytes(rows.next()));
+                buffered.write('\n');
+                count++;
+            }
+            buffered.flush();
+            if (target instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            return count;
+        } catch (IOException e) {
+            // Usually the client went away; abort the cursor rather than draining it
+            throw new UncheckedIOException("Export aborted after " + count + " rows", e);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+}
@@ -0,0 +1,521 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.dto.CommentBatchResult;
+import com.athar.postmanager.dto.CommentImportRow;
+import com.athar.postmanager.dto.ImportReport;
+import com.athar.postmanager.dto.PostImportRow;
+import com.athar.postmanager.model.Comment;
+import com.athar.postmanager.model.Post;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ArgumentPreparedStatementSetter;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk import of posts and comments from NDJSON or CSV (with a header row).
+ *
+ * The input is read as a stream by one thread, cut into chunks of {@code batch-size} rows and
+ * handed to a small pool of writers, each committing its chunk in its own transaction. Posts go
+ * in as JDBC batches (rewritten into multi-row INSERTs by the MySQL driver); comments go through
+ * {@link CommentService#addComments(List)}, which validates and batch-inserts them. Rows failing
+ * the same checks as the single-item endpoints are reported and skipped.
+ *
+ * Every chunk records its row-number range in {@code import_checkpoints}, in the same transaction
+ * that writes its rows. Re-running a job with the same input skips the recorded rows, so an
+ * interrupted import resumes where it stopped without duplicating rows, whatever point it died
+ * at. The checkpoint rows are removed once a run completes. Imported post ids are evicted from
+ * the post cache as their chunk commits, so earlier 404 lookups are not served from the cache.
+ */
+@Service
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    public enum Format {
+        NDJSON, CSV;
+
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Format must be ndjson or csv");
+            }
+        }
+    }
+
+    static final String INSERT_POST =
+            "INSERT INTO posts (title, content, likes, deleted, version, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, false, 0, ?, ?)";
+    static final String INSERT_POST_WITH_ID =
+            "INSERT INTO posts (id, title, content, likes, deleted, version, created_at, updated_at) "
+                    + "VALUES (?, ?, ?, ?, false, 0, ?, ?)";
+
+    static final String SELECT_CHECKPOINTS = "SELECT first_row, last_row FROM import_checkpoints WHERE job = ?";
+    static final String INSERT_CHECKPOINT = "INSERT INTO import_checkpoints (job, first_row, last_row) VALUES (?, ?, ?)";
+    static final String DELETE_CHECKPOINTS = "DELETE FROM import_checkpoints WHERE job = ?";
+
+    private static final Pattern JOB_NAME = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final DateTimeFormatter JOB_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CommentService commentService;
+    private final PostSearchIndex searchIndex;
+    private final TopLikedLeaderboard leaderboard;
+    private final PostCache postCache;
+    private final ObjectMapper objectMapper;
+    private final CsvMapper csvMapper;
+    private final int batchSize;
+    private final int writers;
+    private final int maxReportedErrors;
+
+    private final Map<String, Boolean> runningJobs = new ConcurrentHashMap<>();
+
+    public ImportService(JdbcTemplate jdbcTemplate,
+                         PlatformTransactionManager transactionManager,
+                         CommentService commentService,
+                         PostSearchIndex searchIndex,
+                         TopLikedLeaderboard leaderboard,
+                         PostCache postCache,
+                         ObjectMapper objectMapper,
+                         @Value("${post.import.batch-size:1000}") int batchSize,
+                         @Value("${post.import.writers:4}") int writers,
+                         @Value("${post.import.max-reported-errors:100}") int maxReportedErrors) {
+        if (batchSize <= 0 || batchSize > CommentService.MAX_BATCH_SIZE || writers <= 0) {
+            throw new IllegalArgumentException("Invalid import configuration");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.commentService = commentService;
+        this.searchIndex = searchIndex;
+        this.leaderboard = leaderboard;
+        this.postCache = postCache;
+        this.objectMapper = objectMapper;
+        this.csvMapper = CsvMapper.builder()
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .addModule(new JavaTimeModule())
+                .build();
+        this.batchSize = batchSize;
+        this.writers = writers;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    // ------------------------------------------------------
+    // ENTRY POINTS
+    // ------------------------------------------------------
+    public ImportReport importPosts(InputStream input, Format format, String job) {
+        String jobName = jobName(job, "posts");
+        ImportReport report = run(jobName, rows(input, format, PostImportRow.class), this::writePosts);
+        if (report.imported() > 0) {
+            // Rows bypassed PostService, so refresh the derived views in one go
+            searchIndex.submitReindex();
+            leaderboard.reseed();
+        }
+        return report;
+    }
+
+    public ImportReport importComments(InputStream input, Format format, String job) {
+        String jobName = jobName(job, "comments");
+        return run(jobName, rows(input, format, CommentImportRow.class), this::writeComments);
+    }
+
+    private String jobName(String job, String kind) {
+        if (job == null || job.isBlank()) {
+            return kind + "-" + LocalDateTime.now().format(JOB_STAMP);
+        }
+        if (!JOB_NAME.matcher(job).matches()) {
+            throw new IllegalArgumentException("Job name may only contain letters, digits, '.', '_' and '-'");
+        }
+        return job;
+    }
+
+    private <R> MappingIterator<R> rows(InputStream input, Format format, Class<R> type) {
+        if (input == null) throw new IllegalArgumentException("Import input is required");
+        try {
+            ObjectReader reader = format == Format.CSV
+                    ? csvMapper.readerFor(type).with(CsvSchema.emptySchema().withHeader())
+                    : objectMapper.readerFor(type);
+            return reader.readValues(input);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open import input", e);
+        }
+    }
+
+    // ------------------------------------------------------
+    // PIPELINE
+    // ------------------------------------------------------
+    private <R> ImportReport run(String job, MappingIterator<R> rows, ChunkWriter<R> writer) {
+        if (runningJobs.putIfAbsent(job, Boolean.TRUE) != null) {
+            throw new IllegalStateException("Import job " + job + " is already running");
+        }
+        long started = System.nanoTime();
+        Run run = new Run(job, Checkpoint.load(jdbcTemplate, job));
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(writers, writers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(writers), runnable -> {
+                    Thread thread = new Thread(runnable, "import-writer-" + job);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // A full queue makes the reader write the chunk itself, which throttles reading
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        long rowNumber = 0;
+        boolean readToEnd = false;
+        try (rows) {
+            List<Numbered<R>> chunk = new ArrayList<>(batchSize);
+            while (run.abort.get() == null && rows.hasNextValue()) {
+                R row = rows.nextValue();
+                rowNumber++;
+                run.rowsRead.incrementAndGet();
+                if (run.checkpoint.isCommitted(rowNumber)) {
+                    run.resumed.incrementAndGet();
+                    continue;
+                }
+                chunk.add(new Numbered<>(rowNumber, row));
+                if (chunk.size() == batchSize) {
+                    submit(pool, run, writer, chunk);
+                    chunk = new ArrayList<>(batchSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                submit(pool, run, writer, chunk);
+            }
+            readToEnd = run.abort.get() == null;
+        } catch (IOException | RuntimeException e) {
+            run.error(rowNumber + 1, "unreadable input: " + e.getMessage());
+        } finally {
+            pool.shutdown();
+            awaitWriters(pool);
+            runningJobs.remove(job);
+        }
+
+        boolean completed = readToEnd && run.abort.get() == null;
+        if (run.abort.get() != null) {
+            run.error(0, "aborted: " + run.abort.get().getMessage());
+        }
+        if (completed) {
+            run.checkpoint.delete();
+        }
+
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        long processed = run.imported.get() + run.failed.get() + run.skipped.get();
+        double rowsPerSecond = elapsedMs == 0 ? processed : processed * 1000.0 / elapsedMs;
+        ImportReport report = new ImportReport(job, run.rowsRead.get(), run.imported.get(), run.failed.get(),
+                run.skipped.get(), run.resumed.get(), elapsedMs, Math.round(rowsPerSecond * 10) / 10.0,
+                completed, List.copyOf(run.errors));
+        log.info("Import {} {}: {} imported, {} failed, {} skipped, {} resumed in {} ms ({} rows/s)",
+                job, completed ? "completed" : "stopped", report.imported(), report.failed(), report.skipped(),
+                report.resumedAfter(), elapsedMs, report.rowsPerSecond());
+        return report;
+    }
+
+    private <R> void submit(ThreadPoolExecutor pool, Run run, ChunkWriter<R> writer, List<Numbered<R>> chunk) {
+        long first = chunk.get(0).row();
+        long last = chunk.get(chunk.size() - 1).row();
+        pool.execute(() -> {
+            if (run.abort.get() != null) return;
+            try {
+                // Each writer records the chunk's checkpoint in the transaction writing its rows
+                writer.write(chunk, first, last, run);
+            } catch (RuntimeException e) {
+                // Not a bad row but a failing database; stop and leave the chunk for the resume
+                run.abort.compareAndSet(null, e);
+                log.warn("Import {} aborted at rows {}-{}: {}", run.job, first, last, e.getMessage());
+            }
+        });
+    }
+
+    private static void awaitWriters(ThreadPoolExecutor pool) {
+        try {
+            while (!pool.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.debug("Waiting for import writers to finish");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ------------------------------------------------------
+    // WRITERS
+    // ------------------------------------------------------
+    @FunctionalInterface
+    private interface ChunkWriter<R> {
+        void write(List<Numbered<R>> chunk, long first, long last, Run run);
+    }
+
+    private void writePosts(List<Numbered<PostImportRow>> chunk, long first, long last, Run run) {
+        List<Numbered<Object[]>> generated = new ArrayList<>();
+        List<Numbered<Object[]>> withId = new ArrayList<>();
+        for (Numbered<PostImportRow> numbered : chunk) {
+            PostImportRow row = numbered.value();
+            if (row == null || Boolean.TRUE.equals(row.deleted())) {
+                run.skipped.incrementAndGet();
+                continue;
+            }
+            try {
+                PostService.validateNewPost(new Post(row.title(), row.content()));
+            } catch (IllegalArgumentException e) {
+                run.fail(numbered.row(), e.getMessage());
+                continue;
+            }
+            int likes = row.likes() == null ? 0 : Math.max(0, row.likes());
+            Timestamp createdAt = Timestamp.valueOf(row.createdAt() == null ? LocalDateTime.now() : row.createdAt());
+            if (row.id() == null) {
+                generated.add(new Numbered<>(numbered.row(),
+                        new Object[]{row.title(), row.content(), likes, createdAt, createdAt}));
+            } else {
+                withId.add(new Numbered<>(numbered.row(),
+                        new Object[]{row.id(), row.title(), row.content(), likes, createdAt, createdAt}));
+            }
+        }
+        if (generated.isEmpty() && withId.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> run.checkpoint.record(first, last));
+            return;
+        }
+
+        List<Long> ids;
+        try {
+            ids = transactionTemplate.execute(status -> {
+                List<Long> inserted = new ArrayList<>(insertReturningIds(generated));
+                if (!withId.isEmpty()) {
+                    jdbcTemplate.batchUpdate(INSERT_POST_WITH_ID, withId.stream().map(Numbered::value).toList());
+                    withId.forEach(numbered -> inserted.add((Long) numbered.value()[0]));
+                }
+                run.checkpoint.record(first, last);
+                return inserted;
+            });
+            run.imported.addAndGet(generated.size() + withId.size());
+        } catch (DataIntegrityViolationException e) {
+            // Some row broke a constraint (duplicate id, oversized title); find which, one by one
+            ids = new ArrayList<>();
+            insertIndividually(generated, false, run, ids);
+            insertIndividually(withId, true, run, ids);
+            // Covers the rejected rows too; the inserted ones were recorded with their rows
+            transactionTemplate.executeWithoutResult(status -> run.checkpoint.record(first, last));
+        }
+        // A lookup before the import may have cached the id as missing
+        postCache.invalidateAll(ids);
+    }
+
+    // One JDBC batch (a multi-row INSERT on MySQL) that reports the generated ids
+    private List<Long> insertReturningIds(List<Numbered<Object[]>> rows) {
+        if (rows.isEmpty()) return List.of();
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_POST, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        new ArgumentPreparedStatementSetter(rows.get(i).value()).setValues(statement);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keys);
+        return keys.getKeyList().stream().map(ImportService::generatedId).toList();
+    }
+
+    private void insertIndividually(List<Numbered<Object[]>> rows, boolean withId, Run run, List<Long> ids) {
+        for (Numbered<Object[]> numbered : rows) {
+            try {
+                Long id = transactionTemplate.execute(status -> {
+                    Long inserted;
+                    if (withId) {
+                        jdbcTemplate.update(INSERT_POST_WITH_ID, numbered.value());
+                        inserted = (Long) numbered.value()[0];
+                    } else {
+                        inserted = insertReturningIds(List.of(numbered)).get(0);
+                    }
+                    run.checkpoint.record(numbered.row(), numbered.row());
+                    return inserted;
+                });
+                ids.add(id);
+                run.imported.incrementAndGet();
+            } catch (DataIntegrityViolationException e) {
+                run.fail(numbered.row(), "rejected by database: " + e.getMostSpecificCause().getMessage());
+            }
+        }
+    }
+
+    // MySQL reports the key as GENERATED_KEY, H2 by column name; either way it is the only one
+    private static Long generatedId(Map<String, Object> key) {
+        return ((Number) key.values().iterator().next()).longValue();
+    }
+
+    private void writeComments(List<Numbered<CommentImportRow>> chunk, long first, long last, Run run) {
+        List<Comment> comments = new ArrayList<>(chunk.size());
+        List<Long> rowNumbers = new ArrayList<>(chunk.size());
+        for (Numbered<CommentImportRow> numbered : chunk) {
+            CommentImportRow row = numbered.value();
+            if (row == null) {
+                run.skipped.incrementAndGet();
+                continue;
+            }
+            Comment comment = new Comment(null, row.postId(), row.author(), row.content());
+            if (row.createdAt() != null) {
+                comment.setCreatedAt(row.createdAt());
+            }
+            comments.add(comment);
+            rowNumbers.add(numbered.row());
+        }
+        if (comments.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> run.checkpoint.record(first, last));
+            return;
+        }
+
+        // The range goes in with the batch; if that rolls back, each row goes in with its own insert
+        AtomicBoolean batched = new AtomicBoolean();
+        AtomicBoolean rowByRow = new AtomicBoolean();
+        CommentBatchResult result = commentService.addComments(comments,
+                () -> {
+                    run.checkpoint.record(first, last);
+                    batched.set(true);
+                },
+                index -> {
+                    run.checkpoint.record(rowNumbers.get(index), rowNumbers.get(index));
+                    rowByRow.set(true);
+                });
+        if (!batched.get() || rowByRow.get()) {
+            // Nothing was valid, or the batch fell back to single rows: cover the rejected rows too
+            transactionTemplate.executeWithoutResult(status -> run.checkpoint.record(first, last));
+        }
+        for (CommentBatchResult.Item item : result.results()) {
+            if (item.error() == null) {
+                run.imported.incrementAndGet();
+            } else {
+                run.fail(rowNumbers.get(item.index()), item.error());
+            }
+        }
+    }
+
+    // ------------------------------------------------------
+    // RUN STATE
+    // ------------------------------------------------------
+    private record Numbered<T>(long row, T value) {}
+
+    private final class Run {
+        final String job;
+        final Checkpoint checkpoint;
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong imported = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong skipped = new AtomicLong();
+        final AtomicLong resumed = new AtomicLong();
+        final AtomicReference<RuntimeException> abort = new AtomicReference<>();
+        final ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+        final AtomicInteger errorCount = new AtomicInteger();
+
+        Run(String job, Checkpoint checkpoint) {
+            this.job = job;
+            this.checkpoint = checkpoint;
+        }
+
+        void fail(long row, String message) {
+            failed.incrementAndGet();
+            error(row, message);
+        }
+
+        void error(long row, String message) {
+            if (errorCount.incrementAndGet() <= maxReportedErrors) {
+                errors.add(row > 0 ? "row " + row + ": " + message : message);
+            }
+        }
+    }
+
+    /**
+     * Row ranges committed by earlier runs of the job, loaded once when a run starts; new ranges
+     * are inserted inside the writers' transactions. Ranges rather than a single high-water mark,
+     * because parallel writers finish chunks out of order.
+     */
+    static final class Checkpoint {
+        private final JdbcTemplate jdbcTemplate;
+        private final String job;
+        private final TreeMap<Long, Long> ranges = new TreeMap<>();
+
+        private Checkpoint(JdbcTemplate jdbcTemplate, String job) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.job = job;
+        }
+
+        static Checkpoint load(JdbcTemplate jdbcTemplate, String job) {
+            Checkpoint checkpoint = new Checkpoint(jdbcTemplate, job);
+            jdbcTemplate.query(SELECT_CHECKPOINTS,
+                    rs -> { checkpoint.add(rs.getLong(1), rs.getLong(2)); }, job);
+            return checkpoint;
+        }
+
+        boolean isCommitted(long row) {
+            Map.Entry<Long, Long> range = ranges.floorEntry(row);
+            return range != null && row <= range.getValue();
+        }
+
+        // Must run inside the transaction that writes the rows
+        void record(long first, long last) {
+            jdbcTemplate.update(INSERT_CHECKPOINT, job, first, last);
+        }
+
+        void delete() {
+            try {
+                jdbcTemplate.update(DELETE_CHECKPOINTS, job);
+            } catch (RuntimeException e) {
+                log.warn("Could not delete import checkpoint {}: {}", job, e.getMessage());
+            }
+        }
+
+        // Overlapping and adjacent ranges are merged, so lookups only need the floor entry
+        private void add(long first, long last) {
+            Map.Entry<Long, Long> before = ranges.floorEntry(first);
+            if (before != null && before.getValue() >= first - 1) {
+                first = before.getKey();
+                last = Math.max(last, before.getValue());
+            }
+            Map.Entry<Long, Long> next = ranges.ceilingEntry(first);
+            while (next != null && next.getKey() <= last + 1) {
+                last = Math.max(last, next.getValue());
+                ranges.remove(next.getKey());
+                next = ranges.ceilingEntry(first);
+            }
+            ranges.put(first, last);
+        }
+    }
+}
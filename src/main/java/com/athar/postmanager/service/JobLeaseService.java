@@ -0,0 +1,93 @@
+package com.athar.postmanager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Database leases that keep a background job running on one node at a time.
+ *
+ * A lease row names its owner and an expiry. Taking it is a single conditional UPDATE that only
+ * matches when this node already owns it or the previous owner let it expire, with an INSERT for
+ * a lease that has never been taken; the primary key makes concurrent first inserts race safely.
+ * Holders renew well before expiry, so a node that dies mid-job blocks the others for at most one
+ * TTL. Expiry is compared with this node's clock, so the TTL must dwarf any clock skew.
+ */
+@Service
+public class JobLeaseService {
+
+    private static final Logger log = LoggerFactory.getLogger(JobLeaseService.class);
+
+    static final String TAKE_SQL =
+            "UPDATE job_leases SET owner = ?, expires_at = ? WHERE name = ? AND (owner = ? OR expires_at < ?)";
+    static final String RENEW_SQL =
+            "UPDATE job_leases SET expires_at = ? WHERE name = ? AND owner = ?";
+    static final String INSERT_SQL =
+            "INSERT INTO job_leases (name, owner, expires_at) VALUES (?, ?, ?)";
+
+    // Any instant in the past; written on release so the next node need not race the clock
+    private static final Timestamp RELEASED = Timestamp.valueOf(LocalDateTime.of(2000, 1, 1, 0, 0));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String owner;
+
+    public JobLeaseService(JdbcTemplate jdbcTemplate,
+                           @Value("${post.leases.owner:}") String owner) {
+        this.jdbcTemplate = jdbcTemplate;
+        // The runtime name is pid@host, unique per process unless configured explicitly
+        this.owner = owner == null || owner.isBlank()
+                ? ManagementFactory.getRuntimeMXBean().getName()
+                : owner;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Takes the lease if it is free, expired or already ours, and extends it to now + ttl.
+     *
+     * @return false if another node holds an unexpired lease
+     */
+    public boolean tryAcquire(String name, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp until = Timestamp.valueOf(now.plus(ttl));
+        if (jdbcTemplate.update(TAKE_SQL, owner, until, name, owner, Timestamp.valueOf(now)) > 0) {
+            return true;
+        }
+        try {
+            return jdbcTemplate.update(INSERT_SQL, name, owner, until) > 0;
+        } catch (DataIntegrityViolationException e) {
+            return false; // the row exists and is held by someone else
+        }
+    }
+
+    /**
+     * Extends a lease this node holds.
+     *
+     * @return false if the lease was lost, i.e. it expired and another node took it
+     */
+    public boolean renew(String name, Duration ttl) {
+        Timestamp until = Timestamp.valueOf(LocalDateTime.now().plus(ttl));
+        return jdbcTemplate.update(RENEW_SQL, until, name, owner) > 0;
+    }
+
+    /**
+     * Gives the lease up early by expiring it, so another node need not wait out the TTL.
+     */
+    public void release(String name) {
+        try {
+            jdbcTemplate.update(RENEW_SQL, RELEASED, name, owner);
+        } catch (RuntimeException e) {
+            log.warn("Could not release lease {}: {}", name, e.getMessage()); // it still expires
+        }
+    }
+}
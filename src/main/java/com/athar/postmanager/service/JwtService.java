@@ -0,0 +1,186 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.dto.AuthenticatedUser;
+import com.athar.postmanager.model.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Issues and verifies HS256 access tokens carrying the user id, username and roles.
+ *
+ * Signing keys are decoded once at startup and looked up by the token's {@code kid} header,
+ * so a previous secret can stay valid for verification during a rotation. Successful
+ * verifications are cached per token until the token expires or the cache TTL passes,
+ * which lets a client reusing the same token skip signature checks entirely.
+ */
+@Service
+public class JwtService {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtService.class);
+
+    private static final String USERNAME_CLAIM = "username";
+    private static final String ROLES_CLAIM = "roles";
+
+    private final String currentKeyId;
+    private final Map<String, SecretKey> keys = new LinkedHashMap<>();
+    private final Duration accessTokenTtl;
+    private final Clock clock;
+    private final JwtParser parser;
+    private final Cache<String, AuthenticatedUser> verified;
+
+    @Autowired
+    public JwtService(@Value("${post.auth.jwt.secret:}") String secret,
+                      @Value("${post.auth.jwt.previous-secret:}") String previousSecret,
+                      @Value("${post.auth.jwt.access-token-ttl:15m}") Duration accessTokenTtl,
+                      @Value("${post.auth.jwt.verification-cache-ttl:1m}") Duration verificationCacheTtl,
+                      @Value("${post.auth.jwt.verification-cache-size:10000}") long verificationCacheSize) {
+        this(secret, previousSecret, accessTokenTtl, verificationCacheTtl, verificationCacheSize, Clock.systemUTC());
+    }
+
+    JwtService(String secret, String previousSecret, Duration accessTokenTtl,
+               Duration verificationCacheTtl, long verificationCacheSize, Clock clock) {
+        SecretKey current;
+        if (secret == null || secret.isBlank()) {
+            log.warn("post.auth.jwt.secret is not set; using a random key, tokens will not survive a restart");
+            current = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        } else {
+            current = decode(secret);
+        }
+        this.currentKeyId = keyId(current);
+        this.keys.put(currentKeyId, current);
+        if (previousSecret != null && !previousSecret.isBlank()) {
+            SecretKey previous = decode(previousSecret);
+            this.keys.putIfAbsent(keyId(previous), previous);
+        }
+
+        this.accessTokenTtl = accessTokenTtl;
+        this.clock = clock;
+        this.parser = Jwts.parserBuilder()
+                .setClock(() -> Date.from(clock.instant()))
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        SecretKey key = header.getKeyId() == null ? null : keys.get(header.getKeyId());
+                        if (key == null) {
+                            throw new JwtException("Unknown signing key");
+                        }
+                        return key;
+                    }
+                })
+                .build();
+        this.verified = Caffeine.newBuilder()
+                .expireAfterWrite(verificationCacheTtl)
+                .maximumSize(verificationCacheSize)
+                .build();
+    }
+
+    // ------------------------------------------------------
+    // ISSUE
+    // ------------------------------------------------------
+    public String issueAccessToken(User user) {
+        Instant now = clock.instant();
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, currentKeyId)
+                .setSubject(String.valueOf(user.getId()))
+                .claim(USERNAME_CLAIM, user.getUsername())
+                .claim(ROLES_CLAIM, user.getRoles() == null ? List.of() : List.copyOf(user.getRoles()))
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(accessTokenTtl)))
+                .signWith(keys.get(currentKeyId), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    public Duration getAccessTokenTtl() {
+        return accessTokenTtl;
+    }
+
+    // ------------------------------------------------------
+    // VERIFY
+    // ------------------------------------------------------
+    /**
+     * Returns the token's identity if its signature is valid and it has not expired.
+     */
+    public Optional<AuthenticatedUser> verify(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        Instant now = clock.instant();
+        AuthenticatedUser cached = verified.getIfPresent(token);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return Optional.of(cached);
+            }
+            verified.invalidate(token);
+            return Optional.empty();
+        }
+
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            AuthenticatedUser user = new AuthenticatedUser(
+                    Long.valueOf(claims.getSubject()),
+                    claims.get(USERNAME_CLAIM, String.class),
+                    roles(claims.get(ROLES_CLAIM)),
+                    claims.getExpiration().toInstant());
+            verified.put(token, user);
+            return Optional.of(user);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static Set<String> roles(Object claim) {
+        if (!(claim instanceof Collection<?> values)) {
+            return Set.of();
+        }
+        return values.stream().map(String::valueOf).collect(Collectors.toUnmodifiableSet());
+    }
+
+    private static SecretKey decode(String base64Secret) {
+        byte[] bytes = Decoders.BASE64.decode(base64Secret);
+        if (bytes.length < 32) {
+            throw new IllegalArgumentException("JWT secret must be at least 256 bits");
+        }
+        return Keys.hmacShaKeyFor(bytes);
+    }
+
+    // Short fingerprint of the key, so rotation needs no separate key-id configuration
+    private static String keyId(SecretKey key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getEncoded());
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
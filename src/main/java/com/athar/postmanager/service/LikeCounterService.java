@@ -0,0 +1,173 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.model.Post;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind like counter.
+ *
+ * Likes and unlikes are accumulated as per-post deltas in striped {@link LongAdder} cells,
+ * so concurrent likes on the same post never contend on a lock or a database row.
+ * A scheduled flush pushes the deltas to {@code posts.likes} with one batched
+ * {@code UPDATE ... SET likes = likes + ?} per flush, which neither reads the row
+ * nor bumps the optimistic-lock version. The written deltas are then added to the posts held
+ * in {@link PostCache}, so cached like counts track the persisted value without the flush
+ * evicting (and readers reloading) the most liked posts every second.
+ */
+@Service
+public class LikeCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeCounterService.class);
+
+    static final String FLUSH_SQL =
+            "UPDATE posts SET likes = GREATEST(COALESCE(likes, 0) + ?, 0) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PostCache postCache;
+    private final int batchSize;
+
+    private final ConcurrentHashMap<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // Cells removed from 'pending' while idle. A writer that fetched the cell just before
+    // removal may still add to it, so residue is collected once more on the next flush.
+    private List<Map.Entry<Long, LongAdder>> retired = new ArrayList<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public LikeCounterService(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              PostCache postCache,
+                              @Value("${post.likes.flush-batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.postCache = postCache;
+        this.batchSize = batchSize;
+    }
+
+    // ------------------------------------------------------
+    // WRITE PATH
+    // ------------------------------------------------------
+    public void add(Long postId, long delta) {
+        if (postId == null) throw new IllegalArgumentException("Invalid post ID");
+        if (delta == 0) return;
+        pending.computeIfAbsent(postId, id -> new LongAdder()).add(delta);
+    }
+
+    /**
+     * Drops any unflushed delta for a post that no longer exists.
+     */
+    public void discard(Long postId) {
+        if (postId != null) {
+            pending.remove(postId);
+        }
+    }
+
+    // ------------------------------------------------------
+    // READ PATH
+    // ------------------------------------------------------
+    public long pendingDelta(Long postId) {
+        LongAdder cell = postId == null ? null : pending.get(postId);
+        return cell == null ? 0 : cell.sum();
+    }
+
+    /**
+     * Persisted like count combined with the not-yet-flushed delta, never negative.
+     */
+    public long effectiveLikes(Long postId, Integer persistedLikes) {
+        long persisted = persistedLikes == null ? 0 : persistedLikes;
+        return Math.max(0, persisted + pendingDelta(postId));
+    }
+
+    // ------------------------------------------------------
+    // FLUSH
+    // ------------------------------------------------------
+    @Scheduled(fixedDelayString = "${post.likes.flush-interval-ms:1000}")
+    public int flush() {
+        flushLock.lock();
+        try {
+            // Snapshot what to write; cells are only decremented once the batch has committed,
+            // so readers never see a dip and a failed batch leaves the deltas in place for retry
+            Map<Long, Long> deltas = new HashMap<>();
+            List<Snapshot> drained = new ArrayList<>();
+
+            List<Map.Entry<Long, LongAdder>> lateWriters = retired;
+            retired = new ArrayList<>();
+            for (Map.Entry<Long, LongAdder> entry : lateWriters) {
+                snapshotInto(deltas, drained, entry);
+            }
+
+            for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+                if (!snapshotInto(deltas, drained, entry)
+                        && pending.remove(entry.getKey(), entry.getValue())) {
+                    retired.add(entry);
+                }
+            }
+
+            if (deltas.isEmpty()) {
+                return 0;
+            }
+
+            Map<Long, Optional<Post>> cached = postCache.snapshot(deltas.keySet());
+            List<Object[]> args = new ArrayList<>(deltas.size());
+            deltas.forEach((postId, delta) -> args.add(new Object[]{delta, postId}));
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.batchUpdate(FLUSH_SQL, args, batchSize, (ps, row) -> {
+                            ps.setLong(1, (Long) row[0]);
+                            ps.setLong(2, (Long) row[1]);
+                        }));
+            } catch (RuntimeException e) {
+                retired.addAll(lateWriters);
+                log.warn("Like counter flush of {} posts failed, will retry: {}", deltas.size(), e.getMessage());
+                return 0;
+            }
+
+            // Subtract exactly what was written; increments that landed mid-flush stay pending
+            for (Snapshot snapshot : drained) {
+                snapshot.cell().add(-snapshot.delta());
+            }
+            postCache.addLikes(deltas, cached);
+            return deltas.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        // Anything still pending was written by a late writer during the flush above
+        flush();
+    }
+
+    private static boolean snapshotInto(Map<Long, Long> deltas, List<Snapshot> drained,
+                                        Map.Entry<Long, LongAdder> entry) {
+        long delta = entry.getValue().sum();
+        if (delta == 0) {
+            return false;
+        }
+        drained.add(new Snapshot(entry.getValue(), delta));
+        deltas.merge(entry.getKey(), delta, Long::sum);
+        return true;
+    }
+
+    // Amount read from a cell for the batch in flight
+    private record Snapshot(LongAdder cell, long delta) {}
+}
@@ -0,0 +1,62 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-window login attempt limits per username and per client address.
+ *
+ * Checked before any password hash is computed, so abusive clients cost a map lookup
+ * instead of a BCrypt round. A successful login clears the username's window.
+ */
+@Component
+public class LoginThrottle {
+
+    private final Cache<String, AtomicInteger> byUsername;
+    private final Cache<String, AtomicInteger> byAddress;
+    private final int maxPerUsername;
+    private final int maxPerAddress;
+    private final Counter rejected;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${post.auth.throttle.window:1m}") Duration window,
+                         @Value("${post.auth.throttle.max-attempts-per-username:10}") int maxPerUsername,
+                         @Value("${post.auth.throttle.max-attempts-per-ip:100}") int maxPerAddress) {
+        this.byUsername = Caffeine.newBuilder().expireAfterWrite(window).maximumSize(100_000).build();
+        this.byAddress = Caffeine.newBuilder().expireAfterWrite(window).maximumSize(100_000).build();
+        this.maxPerUsername = maxPerUsername;
+        this.maxPerAddress = maxPerAddress;
+        this.rejected = Counter.builder("auth.login.throttled").register(meterRegistry);
+    }
+
+    /**
+     * Records an attempt, rejecting it if either the username or the address is over its limit.
+     */
+    public void acquire(String username, String clientAddress) {
+        boolean overUser = username != null && increment(byUsername, username) > maxPerUsername;
+        boolean overAddress = clientAddress != null && increment(byAddress, clientAddress) > maxPerAddress;
+        if (overUser || overAddress) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many login attempts, retry later");
+        }
+    }
+
+    public void reset(String username) {
+        if (username != null) {
+            byUsername.invalidate(username);
+        }
+    }
+
+    // The window starts at the first attempt; entries expire as a whole rather than sliding
+    private static int increment(Cache<String, AtomicInteger> counters, String key) {
+        return counters.get(key, k -> new AtomicInteger()).incrementAndGet();
+    }
+}
@@ -0,0 +1,176 @@
+package com.athar.postmanager.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Deletes comments whose post no longer exists.
+ *
+ * Walks the comments table in primary key windows of {@code chunk-size} ids, up to the highest
+ * id seen when the pass starts, and removes the orphans in each window with one bulk DELETE
+ * (capped by LIMIT). Every statement commits on its own, so no pass holds more than one window
+ * of row locks or loads a single entity. Deletes are paced to {@code rows-per-second}, and the
+ * pass runs under a database lease so only one node reaps at a time.
+ */
+@Service
+public class OrphanCommentReaper {
+
+    private static final Logger log = LoggerFactory.getLogger(OrphanCommentReaper.class);
+
+    static final String LEASE_NAME = "orphan-comment-reaper";
+    static final String MAX_ID_SQL = "SELECT COALESCE(MAX(id), 0) FROM comments";
+    static final String DELETE_SQL =
+            "DELETE FROM comments WHERE id > ? AND id <= ? "
+                    + "AND (post_id IS NULL OR NOT EXISTS (SELECT 1 FROM posts p WHERE p.id = comments.post_id)) "
+                    + "LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JobLeaseService leases;
+    private final int chunkSize;
+    private final int rowsPerSecond;
+    private final Duration leaseTtl;
+    private final Counter deletedCounter;
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    private volatile long position;
+    private volatile long passEnd;
+    private volatile boolean stopping;
+
+    public OrphanCommentReaper(JdbcTemplate jdbcTemplate,
+                               JobLeaseService leases,
+                               MeterRegistry meterRegistry,
+                               @Value("${post.comments.orphan-reaper.chunk-size:1000}") int chunkSize,
+                               @Value("${post.comments.orphan-reaper.rows-per-second:2000}") int rowsPerSecond,
+                               @Value("${post.comments.orphan-reaper.lease-ttl:5m}") Duration leaseTtl) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("Reaper chunk size must be positive");
+        if (rowsPerSecond <= 0) throw new IllegalArgumentException("Reaper rows per second must be positive");
+        if (leaseTtl.isNegative() || leaseTtl.isZero()) {
+            throw new IllegalArgumentException("Reaper lease TTL must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.leases = leases;
+        this.chunkSize = chunkSize;
+        this.rowsPerSecond = rowsPerSecond;
+        this.leaseTtl = leaseTtl;
+        this.deletedCounter = Counter.builder("comments.orphans.deleted")
+                .description("Orphan comments removed by the reaper")
+                .register(meterRegistry);
+        Gauge.builder("comments.orphans.reaper.progress", this, OrphanCommentReaper::progress)
+                .description("Share of the comment id range covered by the current or last reaper pass")
+                .register(meterRegistry);
+        Gauge.builder("comments.orphans.reaper.position", this, reaper -> reaper.position)
+                .description("Last comment id examined by the reaper")
+                .register(meterRegistry);
+    }
+
+    double progress() {
+        long end = passEnd;
+        return end == 0 ? 1.0 : Math.min(1.0, (double) position / end);
+    }
+
+    @Scheduled(cron = "${post.comments.orphan-reaper.cron:0 0 * * * *}")
+    public void scheduledReap() {
+        try {
+            reap();
+        } catch (RuntimeException e) {
+            log.warn("Orphan comment reaper failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs one pass over the comments table if no other node is reaping.
+     *
+     * @return how many orphan comments were deleted, or -1 if a pass was already running here or elsewhere
+     */
+    public long reap() {
+        if (!runLock.tryLock()) return -1;
+        try {
+            if (!leases.tryAcquire(LEASE_NAME, leaseTtl)) {
+                log.debug("Orphan comment reaper lease is held by another node");
+                return -1;
+            }
+            try {
+                return reapAll();
+            } finally {
+                leases.release(LEASE_NAME);
+            }
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private long reapAll() {
+        Long maxId = jdbcTemplate.queryForObject(MAX_ID_SQL, Long.class);
+        long end = maxId == null ? 0 : maxId;
+        position = 0;
+        passEnd = end;
+
+        long started = System.nanoTime();
+        long renewedAt = started;
+        long renewEvery = leaseTtl.toNanos() / 3;
+        long deleted = 0;
+        while (position < end && !stopping) {
+            long from = position;
+            long to = Math.min(from + chunkSize, end);
+            int rows = jdbcTemplate.update(DELETE_SQL, from, to, chunkSize);
+            // A window holds at most chunk-size ids, so LIMIT never leaves rows behind in it
+            position = to;
+            if (rows > 0) {
+                deleted += rows;
+                deletedCounter.increment(rows);
+            }
+
+            long now = System.nanoTime();
+            if (now - renewedAt >= renewEvery) {
+                if (!leases.renew(LEASE_NAME, leaseTtl)) {
+                    log.warn("Orphan comment reaper lost its lease at comment id {}", position);
+                    break;
+                }
+                renewedAt = now;
+            }
+            if (!pace(deleted, now - started)) break;
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} orphan comments up to comment id {}", deleted, position);
+        }
+        return deleted;
+    }
+
+    /**
+     * Sleeps until the deleted rows fit the rows-per-second budget.
+     *
+     * @return false if interrupted (the application is shutting down)
+     */
+    private boolean pace(long deleted, long elapsedNanos) {
+        long pause = pauseNanos(deleted, rowsPerSecond, elapsedNanos);
+        if (pause <= 0) return true;
+        try {
+            TimeUnit.NANOSECONDS.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    static long pauseNanos(long deleted, int rowsPerSecond, long elapsedNanos) {
+        return TimeUnit.SECONDS.toNanos(deleted) / rowsPerSecond - elapsedNanos;
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+}
@@ -0,0 +1,133 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt hashing and verification on a dedicated, bounded pool.
+ *
+ * The pool is sized to a share of the available cores so a login burst cannot take every CPU
+ * away from post and comment traffic. Work beyond the pool's queue is rejected immediately
+ * with {@link ServiceUnavailableException} rather than piling up behind the busy workers.
+ *
+ * Hashes are stored with an algorithm prefix ({@code {bcrypt}$2a$12$...}). Legacy unprefixed
+ * BCrypt hashes still verify, and {@link #needsUpgrade(String)} reports hashes whose algorithm
+ * or cost is below the current target so callers can rehash them after a successful login.
+ */
+@Service
+public class PasswordHasher {
+
+    static final String CURRENT_ID = "bcrypt";
+
+    private final DelegatingPasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public PasswordHasher(MeterRegistry meterRegistry,
+                          @Value("${post.auth.bcrypt-strength:10}") int strength,
+                          @Value("${post.auth.hash-pool.core-share:0.5}") double coreShare,
+                          @Value("${post.auth.hash-pool.queue-capacity:64}") int queueCapacity,
+                          @Value("${post.auth.hash-pool.timeout:5s}") Duration timeout) {
+        if (coreShare <= 0 || coreShare > 1 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Invalid password hashing pool configuration");
+        }
+        int threads = Math.max(1, (int) Math.floor(Runtime.getRuntime().availableProcessors() * coreShare));
+        AtomicInteger counter = new AtomicInteger();
+        this.encoder = delegatingEncoder(strength);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.timeout = timeout;
+        this.encodeTimer = timer(meterRegistry, "encode");
+        this.matchesTimer = timer(meterRegistry, "matches");
+        meterRegistry.gauge("auth.password.queue.depth", executor, e -> e.getQueue().size());
+    }
+
+    private static DelegatingPasswordEncoder delegatingEncoder(int strength) {
+        Map<String, PasswordEncoder> encoders = Map.of(CURRENT_ID, new BCryptPasswordEncoder(strength));
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(CURRENT_ID, encoders);
+        // Hashes written before prefixes were introduced are plain BCrypt at whatever cost they used
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return delegating;
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operation) {
+        return Timer.builder("auth.password.hash")
+                .description("BCrypt computation time, excluding time spent queued")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // ------------------------------------------------------
+    // OPERATIONS
+    // ------------------------------------------------------
+    public String encode(String rawPassword) {
+        return submit(() -> encodeTimer.recordCallable(() -> encoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> matchesTimer.recordCallable(() -> encoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * True if the hash is unprefixed, uses another algorithm, or has a lower cost than configured.
+     * Cheap: only the hash header is inspected.
+     */
+    public boolean needsUpgrade(String encodedPassword) {
+        return encodedPassword != null && encoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new ServiceUnavailableException("Authentication is busy, retry later");
+        }
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new ServiceUnavailableException("Authentication timed out, retry later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new ServiceUnavailableException("Authentication interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
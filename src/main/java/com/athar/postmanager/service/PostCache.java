@@ -0,0 +1,185 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.model.Post;
+import com.athar.postmanager.repository.PostRepository;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Policy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Read-through cache of post detail (post + comments) in front of
+ * {@link PostRepository#findWithCommentsById(Long)}.
+ *
+ * Missing and soft-deleted posts (which the entity's SQL restriction hides from the load) are
+ * cached as {@code Optional.empty()} with a shorter TTL, so repeated 404 lookups do not reach the
+ * database. Cached posts carry the persisted like count; callers overlay the pending delta from
+ * {@link LikeCounterService}, whose flush adds what it wrote to the cached count instead of
+ * evicting, so liked posts stay cached. Hit, miss and eviction counts are published as
+ * {@code cache.*} metrics tagged {@code cache=posts}.
+ */
+@Service
+public class PostCache {
+
+    static final int BULK_LOAD_SIZE = 100;
+
+    private final LoadingCache<Long, Optional<Post>> cache;
+
+    public PostCache(PostRepository postRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${post.cache.maximum-size:10000}") long maximumSize,
+                     @Value("${post.cache.ttl:10m}") Duration ttl,
+                     @Value("${post.cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new PresenceAwareExpiry(ttl, negativeTtl))
+                .recordStats()
+                .build(new PostLoader(postRepository));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "posts");
+    }
+
+    /**
+     * Returns the active post with this id, loading it on a miss.
+     * Concurrent misses for the same id share a single load (single flight): one caller runs
+     * the query and the others block on its result instead of issuing their own.
+     */
+    public Optional<Post> get(Long id) {
+        if (id == null) return Optional.empty();
+        return cache.get(id);
+    }
+
+    /**
+     * Returns the post if it is cached, without loading it on a miss or counting the lookup
+     * in the cache statistics.
+     */
+    public Optional<Post> peek(Long id) {
+        Optional<Post> cached = id == null ? null : cache.policy().getIfPresentQuietly(id);
+        return cached == null ? Optional.empty() : cached;
+    }
+
+    /**
+     * Loads whichever of these posts are not cached yet, in bulk queries; cached entries are
+     * left as they are. Used to warm the cache before traffic arrives.
+     */
+    public void preload(Collection<Long> ids) {
+        cache.getAll(ids);
+    }
+
+    /**
+     * Reloads these posts in the background, restarting their TTL. Readers keep getting the
+     * current entry until the new one is in, and a reload that overlaps an invalidation is
+     * discarded, so a refresh can never resurrect data a write just evicted.
+     */
+    public CompletableFuture<?> refresh(Collection<Long> ids) {
+        return cache.refreshAll(ids);
+    }
+
+    /**
+     * The entries currently cached for these ids (absent ones are left out), read quietly.
+     * Taken by the like flush before it writes, for {@link #addLikes}.
+     */
+    public Map<Long, Optional<Post>> snapshot(Collection<Long> ids) {
+        Map<Long, Optional<Post>> cached = new HashMap<>();
+        for (Long id : ids) {
+            Optional<Post> entry = cache.policy().getIfPresentQuietly(id);
+            if (entry != null) cached.put(id, entry);
+        }
+        return cached;
+    }
+
+    /**
+     * Adds flushed like deltas to the cached posts, keeping each entry's remaining TTL.
+     * Only entries still identical to {@code before} are adjusted: one loaded while the flush
+     * was writing may or may not include the write, so it is evicted instead.
+     */
+    public void addLikes(Map<Long, Long> deltas, Map<Long, Optional<Post>> before) {
+        Policy.VarExpiration<Long, Optional<Post>> expiration = cache.policy().expireVariably().orElseThrow();
+        deltas.forEach((id, delta) -> {
+            Optional<Post> seen = before.get(id);
+            Duration remaining = expiration.getExpiresAfter(id).orElse(null);
+            if (seen == null || remaining == null || remaining.isZero() || remaining.isNegative()) {
+                cache.invalidate(id);
+                return;
+            }
+            expiration.compute(id, (key, current) -> {
+                if (current != seen) return null;
+                return current.map(post -> post.withLikes(
+                        (int) Math.max(0, (post.getLikes() == null ? 0 : post.getLikes()) + delta)));
+            }, remaining);
+        });
+    }
+
+    public void invalidate(Long id) {
+        if (id != null) {
+            cache.invalidate(id);
+        }
+    }
+
+    public void invalidateAll(Collection<Long> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // Single loads use the detail query; bulk loads (preload) fetch chunks of posts with their comments
+    private record PostLoader(PostRepository postRepository) implements CacheLoader<Long, Optional<Post>> {
+
+        @Override
+        public Optional<Post> load(Long id) {
+            return postRepository.findWithCommentsById(id);
+        }
+
+        @Override
+        public Map<Long, Optional<Post>> loadAll(Set<? extends Long> ids) {
+            List<Long> pending = new ArrayList<>(ids);
+            Map<Long, Optional<Post>> loaded = new HashMap<>();
+            for (int from = 0; from < pending.size(); from += BULK_LOAD_SIZE) {
+                List<Long> chunk = pending.subList(from, Math.min(from + BULK_LOAD_SIZE, pending.size()));
+                for (Post post : postRepository.findWithCommentsByIdIn(chunk)) {
+                    loaded.put(post.getId(), Optional.of(post));
+                }
+            }
+            for (Long id : pending) {
+                loaded.putIfAbsent(id, Optional.empty()); // missing or soft-deleted
+            }
+            return loaded;
+        }
+    }
+
+    // Positive entries live for 'ttl', negative ones for 'negativeTtl'
+    private record PresenceAwareExpiry(Duration ttl, Duration negativeTtl)
+            implements Expiry<Long, Optional<Post>> {
+
+        @Override
+        public long expireAfterCreate(Long key, Optional<Post> value, long currentTime) {
+            return (value.isPresent() ? ttl : negativeTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, Optional<Post> value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, Optional<Post> value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.repository.CommentRepository;
+import com.athar.postmanager.repository.PostRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Keeps the posts most likely to be requested in {@link PostCache}: the top liked ones and the
+ * ones behind the newest comments.
+ *
+ * The hot set is loaded in bulk during startup ({@code @PostConstruct} runs before the web server
+ * accepts requests), so a restart does not send the first burst of detail views to the database.
+ * It is then refreshed every {@code interval-ms}, which must be shorter than the cache TTL: hot
+ * entries are reloaded in the background before they expire and never fall out all at once.
+ */
+@Service
+public class PostCacheWarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(PostCacheWarmer.class);
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final PostCache postCache;
+    private final int topLiked;
+    private final int recentComments;
+
+    public PostCacheWarmer(PostRepository postRepository,
+                           CommentRepository commentRepository,
+                           PostCache postCache,
+                           @Value("${post.cache.warm.top-liked:100}") int topLiked,
+                           @Value("${post.cache.warm.recent-comments:1000}") int recentComments,
+                           @Value("${post.cache.warm.interval-ms:240000}") long intervalMs,
+                           @Value("${post.cache.ttl:10m}") Duration ttl) {
+        if (topLiked < 0 || recentComments < 0) {
+            throw new IllegalArgumentException("Cache warm-up sizes cannot be negative");
+        }
+        if (intervalMs >= ttl.toMillis()) {
+            throw new IllegalArgumentException("Cache warm-up interval must be shorter than the cache TTL");
+        }
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.postCache = postCache;
+        this.topLiked = topLiked;
+        this.recentComments = recentComments;
+    }
+
+    @PostConstruct
+    public void warmUp() {
+        try {
+            Set<Long> ids = hotPostIds();
+            postCache.preload(ids);
+            log.info("Pre-warmed the post cache with {} posts", ids.size());
+        } catch (RuntimeException e) {
+            // A cold cache is slower, not broken
+            log.warn("Could not pre-warm the post cache: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${post.cache.warm.interval-ms:240000}",
+               fixedDelayString = "${post.cache.warm.interval-ms:240000}")
+    public void refresh() {
+        try {
+            // Waiting for the reloads keeps passes from overlapping
+            postCache.refresh(hotPostIds()).join();
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh hot posts in the cache: {}", e.getMessage());
+        }
+    }
+
+    Set<Long> hotPostIds() {
+        Set<Long> ids = new LinkedHashSet<>();
+        if (topLiked > 0) {
+            ids.addAll(postRepository.findTopLikedIds(PageRequest.of(0, topLiked)));
+        }
+        if (recentComments > 0) {
+            ids.addAll(commentRepository.findRecentlyCommentedPostIds(PageRequest.of(0, recentComments)));
+        }
+        return ids;
+    }
+}
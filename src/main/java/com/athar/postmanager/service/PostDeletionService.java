@@ -0,0 +1,168 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.dto.BulkDeleteJob;
+import com.athar.postmanager.repository.CommentRepository;
+import com.athar.postmanager.repository.PostRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Physical deletion of posts and their comments with bulk statements, used by the admin bulk
+ * delete and by SoftDeletedPostPurger (user-facing deletes only soft-delete, see PostService).
+ *
+ * Comments are removed with {@code DELETE FROM comments WHERE post_id = ? LIMIT n}, one
+ * transaction per chunk, so a post with tens of thousands of comments never loads them into
+ * the persistence context or builds one giant undo log. The last chunk and the post row are
+ * deleted together in a final transaction, so comments inserted mid-delete cannot orphan.
+ */
+@Service
+public class PostDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostDeletionService.class);
+
+    public static final int MAX_BULK_DELETE_IDS = 10_000;
+    private static final int MAX_RETAINED_JOBS = 100;
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final LikeCounterService likeCounter;
+    private final TopLikedLeaderboard leaderboard;
+    private final PostCache postCache;
+    private final PostSearchIndex searchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    private final ConcurrentHashMap<String, BulkDeleteJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService bulkExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "post-bulk-delete");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public PostDeletionService(PostRepository postRepository,
+                               CommentRepository commentRepository,
+                               LikeCounterService likeCounter,
+                               TopLikedLeaderboard leaderboard,
+                               PostCache postCache,
+                               PostSearchIndex searchIndex,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${post.delete.comment-chunk-size:5000}") int chunkSize) {
+        if (chunkSize <= 0) throw new IllegalArgumentException("Comment chunk size must be positive");
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.likeCounter = likeCounter;
+        this.leaderboard = leaderboard;
+        this.postCache = postCache;
+        this.searchIndex = searchIndex;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    // ------------------------------------------------------
+    // SINGLE POST
+    // ------------------------------------------------------
+
+    /**
+     * Deletes a post and all of its comments.
+     *
+     * @return false if no post with this id existed
+     */
+    public boolean deleteWithComments(Long postId) {
+        if (postId == null || postId <= 0) {
+            throw new IllegalArgumentException("Invalid post ID");
+        }
+
+        // Each chunk commits on its own; a full chunk means there may be more
+        while (commentRepository.deleteChunkByPostId(postId, chunkSize) == chunkSize) {
+            log.debug("Deleted {} comments of post {}, continuing", chunkSize, postId);
+        }
+
+        Integer deletedPosts = transactionTemplate.execute(status -> {
+            commentRepository.deleteChunkByPostId(postId, chunkSize);
+            return postRepository.deleteByIdInBulk(postId);
+        });
+
+        postCache.invalidate(postId);
+        searchIndex.remove(postId);
+        if (deletedPosts == null || deletedPosts == 0) {
+            return false;
+        }
+        likeCounter.discard(postId);
+        leaderboard.remove(postId);
+        return true;
+    }
+
+    // ------------------------------------------------------
+    // MANY POSTS (async admin operation)
+    // ------------------------------------------------------
+    public BulkDeleteJob submitBulkDelete(List<Long> postIds) {
+        if (postIds == null || postIds.isEmpty()) {
+            throw new IllegalArgumentException("Post IDs cannot be empty");
+        }
+        if (postIds.size() > MAX_BULK_DELETE_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_DELETE_IDS + " posts per request");
+        }
+        LinkedHashSet<Long> ids = new LinkedHashSet<>(postIds);
+        if (ids.stream().anyMatch(id -> id == null || id <= 0)) {
+            throw new IllegalArgumentException("Invalid post ID");
+        }
+
+        pruneFinishedJobs();
+        BulkDeleteJob job = new BulkDeleteJob(UUID.randomUUID().toString(), ids.size());
+        jobs.put(job.getId(), job);
+        bulkExecutor.execute(() -> runBulkDelete(job, List.copyOf(ids)));
+        return job;
+    }
+
+    public Optional<BulkDeleteJob> getBulkDeleteJob(String jobId) {
+        return Optional.ofNullable(jobId == null ? null : jobs.get(jobId));
+    }
+
+    void runBulkDelete(BulkDeleteJob job, List<Long> postIds) {
+        job.markRunning();
+        for (Long postId : postIds) {
+            try {
+                if (deleteWithComments(postId)) {
+                    job.recordDeleted();
+                } else {
+                    job.recordNotFound();
+                }
+            } catch (RuntimeException e) {
+                job.recordFailed();
+                log.warn("Bulk delete job {} failed on post {}: {}", job.getId(), postId, e.getMessage());
+            }
+        }
+        job.markFinished(job.getFailed() == 0);
+    }
+
+    private void pruneFinishedJobs() {
+        if (jobs.size() < MAX_RETAINED_JOBS) return;
+        jobs.values().stream()
+                .filter(BulkDeleteJob::isFinished)
+                .sorted((a, b) -> a.getSubmittedAt().compareTo(b.getSubmittedAt()))
+                .limit(jobs.size() - MAX_RETAINED_JOBS + 1L)
+                .forEach(job -> jobs.remove(job.getId()));
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        bulkExecutor.shutdown();
+        if (!bulkExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+            bulkExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.model.Post;
+import com.athar.postmanager.repository.PostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.similarities.BM25Similarity;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.LockObtainFailedException;
+import org.apache.lucene.store.MMapDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Embedded Lucene index over post titles and content, ranked with BM25.
+ *
+ * PostService and PostDeletionService keep it current as posts change; a refresh every second
+ * makes those changes searchable and a periodic commit persists them to memory-mapped segments
+ * under {@code post.search.index-dir}, so a restart reopens the index instead of rebuilding it.
+ *
+ * A reindex walks the active posts in id order and upserts each one under a new generation
+ * number, then drops every document from older generations. Searches keep working while it runs,
+ * and posts written concurrently are indexed under the new generation too. A post that is indexed
+ * or removed after the pass read its page is skipped by the pass, so the page's older copy never
+ * overwrites the newer write or brings back a deleted post.
+ */
+@Service
+public class PostSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PostSearchIndex.class);
+
+    static final String ID = "id";
+    static final String TITLE = "title";
+    static final String CONTENT = "content";
+    static final String GENERATION = "gen";
+    private static final String GENERATION_COMMIT_KEY = "generation";
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(TITLE, 2.0f, CONTENT, 1.0f);
+
+    private final PostRepository postRepository;
+    private final String indexDir;
+    private final int reindexBatchSize;
+    private final Analyzer analyzer = new StandardAnalyzer();
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    private static final int WRITE_LOCK_STRIPES = 64;
+
+    private final AtomicLong generation = new AtomicLong();
+    // While a pass runs: sequence number of the latest incremental write per post id
+    private final ConcurrentHashMap<Long, Long> writtenDuringPass = new ConcurrentHashMap<>();
+    private final AtomicLong writeSequence = new AtomicLong();
+    private final ReentrantLock[] writeLocks = new ReentrantLock[WRITE_LOCK_STRIPES];
+    private volatile boolean passRunning;
+    private final AtomicBoolean reindexing = new AtomicBoolean();
+    private final AtomicLong reindexed = new AtomicLong();
+    private volatile Instant lastReindexAt;
+    private volatile boolean closing;
+    private final ExecutorService reindexExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "post-search-reindex");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public PostSearchIndex(PostRepository postRepository,
+                           @Value("${post.search.index-dir:data/search-index}") String indexDir,
+                           @Value("${post.search.reindex-batch-size:500}") int reindexBatchSize) {
+        if (reindexBatchSize <= 0) throw new IllegalArgumentException("Reindex batch size must be positive");
+        this.postRepository = postRepository;
+        this.indexDir = indexDir;
+        this.reindexBatchSize = reindexBatchSize;
+        for (int i = 0; i < WRITE_LOCK_STRIPES; i++) {
+            writeLocks[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        try {
+            directory = new MMapDirectory(Path.of(indexDir));
+            writer = new IndexWriter(directory, writerConfig());
+        } catch (LockObtainFailedException e) {
+            // Another process owns the directory; serve from memory and rebuild from the database
+            log.warn("Search index at {} is locked by another process, using an in-memory index", indexDir);
+            directory.close();
+            directory = new ByteBuffersDirectory();
+            writer = new IndexWriter(directory, writerConfig());
+        }
+        writer.getLiveCommitData().forEach(entry -> {
+            if (GENERATION_COMMIT_KEY.equals(entry.getKey())) {
+                generation.set(Long.parseLong(entry.getValue()));
+            }
+        });
+        searcherManager = new SearcherManager(writer, new SearcherFactory() {
+            @Override
+            public IndexSearcher newSearcher(IndexReader reader, IndexReader previousReader) {
+                IndexSearcher searcher = new IndexSearcher(reader);
+                searcher.setSimilarity(new BM25Similarity());
+                return searcher;
+            }
+        });
+    }
+
+    private IndexWriterConfig writerConfig() {
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setSimilarity(new BM25Similarity());
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        return config;
+    }
+
+    // ------------------------------------------------------
+    // INCREMENTAL UPDATES
+    // ------------------------------------------------------
+
+    /**
+     * Adds or replaces the post's document. Index failures are logged, not thrown: the database
+     * write has already happened and a reindex repairs any drift.
+     */
+    public void index(Post post) {
+        if (post == null || post.getId() == null) return;
+        if (Boolean.TRUE.equals(post.isDeleted())) {
+            remove(post.getId());
+            return;
+        }
+        ReentrantLock lock = lockFor(post.getId());
+        lock.lock();
+        try {
+            recordWrite(post.getId());
+            writer.updateDocument(idTerm(post.getId()), toDocument(post, generation.get()));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not index post {}: {}", post.getId(), e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(Long postId) {
+        if (postId == null) return;
+        ReentrantLock lock = lockFor(postId);
+        lock.lock();
+        try {
+            recordWrite(postId);
+            writer.deleteDocuments(idTerm(postId));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not remove post {} from the search index: {}", postId, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Callers hold the post's stripe lock, so a pass cannot check and write in between
+    private void recordWrite(Long postId) {
+        if (passRunning) {
+            writtenDuringPass.put(postId, writeSequence.incrementAndGet());
+        }
+    }
+
+    private ReentrantLock lockFor(Long postId) {
+        return writeLocks[Math.floorMod(postId.hashCode(), WRITE_LOCK_STRIPES)];
+    }
+
+    private static Term idTerm(Long postId) {
+        return new Term(ID, String.valueOf(postId));
+    }
+
+    private static Document toDocument(Post post, long gen) {
+        Document doc = new Document();
+        doc.add(new StringField(ID, String.valueOf(post.getId()), Field.Store.YES));
+        doc.add(new TextField(TITLE, nullToEmpty(post.getTitle()), Field.Store.NO));
+        doc.add(new TextField(CONTENT, nullToEmpty(post.getContent()), Field.Store.NO));
+        doc.add(new LongPoint(GENERATION, gen));
+        return doc;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    // ------------------------------------------------------
+    // SEARCH
+    // ------------------------------------------------------
+    public record Hits(List<Long> ids, long totalHits) {}
+
+    /**
+     * Returns the ids of the best-scoring posts in rank order, skipping the first {@code offset}.
+     * Supports simple query syntax: quoted phrases, {@code +}/{@code -} and trailing {@code *}.
+     */
+    public Hits search(String queryText, int offset, int limit) {
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(queryText);
+        if (query == null) {
+            return new Hits(List.of(), 0);
+        }
+
+        IndexSearcher searcher;
+        try {
+            searcher = searcherManager.acquire();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search index unavailable", e);
+        }
+        try {
+            TopDocs top = searcher.search(query, offset + limit);
+            List<Long> ids = new ArrayList<>(limit);
+            ScoreDoc[] docs = top.scoreDocs;
+            for (int i = offset; i < docs.length; i++) {
+                ids.add(Long.valueOf(searcher.storedFields().document(docs[i].doc).get(ID)));
+            }
+            return new Hits(ids, top.totalHits.value);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search failed", e);
+        } finally {
+            try {
+                searcherManager.release(searcher);
+            } catch (IOException e) {
+                log.warn("Could not release index searcher: {}", e.getMessage());
+            }
+        }
+    }
+
+    // ------------------------------------------------------
+    // REFRESH / COMMIT
+    // ------------------------------------------------------
+    @Scheduled(fixedDelayString = "${post.search.refresh-interval-ms:1000}")
+    public void refresh() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.warn("Search index refresh failed: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${post.search.commit-interval-ms:30000}")
+    public void commit() {
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.setLiveCommitData(Map.of(GENERATION_COMMIT_KEY, String.valueOf(generation.get())).entrySet());
+                writer.commit();
+            }
+        } catch (IOException e) {
+            log.warn("Search index commit failed: {}", e.getMessage());
+        }
+    }
+
+    // ------------------------------------------------------
+    // REINDEX
+    // ------------------------------------------------------
+
+    /**
+     * Starts a background rebuild from the database.
+     *
+     * @return false if a rebuild is already running
+     */
+    public boolean submitReindex() {
+        if (!reindexing.compareAndSet(false, true)) {
+            return false;
+        }
+        reindexExecutor.submit(() -> {
+            try {
+                reindex();
+            } catch (RuntimeException | IOException e) {
+                log.error("Search reindex failed", e);
+            } finally {
+                reindexing.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Blocks until a running or queued rebuild has finished. For processes that exit right after
+     * starting one (the {@code import} profile): closing the index stops a pass early.
+     */
+    public void awaitReindex() throws InterruptedException {
+        try {
+            // The executor is single-threaded, so this no-op runs only after the rebuild
+            reindexExecutor.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    void reindex() throws IOException {
+        long gen = generation.incrementAndGet();
+        reindexed.set(0);
+        writtenDuringPass.clear();
+        passRunning = true;
+        try {
+            long afterId = 0;
+            List<Post> batch;
+            do {
+                long readAt = writeSequence.get();
+                batch = postRepository.findActiveAfterId(afterId, PageRequest.of(0, reindexBatchSize));
+                for (Post post : batch) {
+                    upsertUnlessWrittenSince(post, gen, readAt);
+                    afterId = post.getId();
+                }
+                reindexed.addAndGet(batch.size());
+            } while (batch.size() == reindexBatchSize && !closing);
+        } finally {
+            passRunning = false;
+            writtenDuringPass.clear();
+        }
+
+        if (closing) {
+            // Stopped early; older generations stay until the next complete pass
+            return;
+        }
+
+        // Anything not rewritten under this generation was deleted while it was not being tracked
+        writer.deleteDocuments(LongPoint.newRangeQuery(GENERATION, Long.MIN_VALUE, gen - 1));
+        commit();
+        searcherManager.maybeRefresh();
+        lastReindexAt = Instant.now();
+        log.info("Search reindex complete: {} posts", reindexed.get());
+    }
+
+    // Anything indexed or removed after the page was read is newer than the page's copy
+    private void upsertUnlessWrittenSince(Post post, long gen, long readAt) throws IOException {
+        ReentrantLock lock = lockFor(post.getId());
+        lock.lock();
+        try {
+            Long written = writtenDuringPass.get(post.getId());
+            if (written == null || written <= readAt) {
+                writer.updateDocument(idTerm(post.getId()), toDocument(post, gen));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> status() {
+        return Map.of(
+                "documents", writer.getDocStats().numDocs,
+                "reindexing", reindexing.get(),
+                "reindexedPosts", reindexed.get(),
+                "lastReindexAt", lastReindexAt == null ? "never" : lastReindexAt.toString());
+    }
+
+    // A fresh or unreadable-from-disk index is rebuilt once the application is up
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexIfEmpty() {
+        if (writer.getDocStats().numDocs == 0) {
+            submitReindex();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        // No interrupt: an interrupted IndexWriter write can close the writer for good
+        closing = true;
+        reindexExecutor.shutdown();
+        reindexExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+}
@@ -1,31 +1,72 @@
 package com.athar.postmanager.service;
 
+import com.athar.postmanager.dto.CursorPage;
+import com.athar.postmanager.dto.KeysetCursor;
+import com.athar.postmanager.dto.PostSummary;
+import com.athar.postmanager.dto.PostVersion;
+import com.athar.postmanager.dto.SearchPage;
+import com.athar.postmanager.dto.TopPost;
+import com.athar.postmanager.exception.ConflictException;
+import com.athar.postmanager.exception.PreconditionFailedException;
 import com.athar.postmanager.model.Post;
-import com.athar.postmanager.model.Comment;
 import com.athar.postmanager.repository.PostRepository;
-import com.athar.postmanager.repository.CommentRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.calls", histogram = true)
 public class PostService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_SEARCH_DEPTH = 1000;
+
     private final PostRepository postRepository;
-    private final CommentRepository commentRepository;
+    private final LikeCounterService likeCounter;
+    private final TopLikedLeaderboard leaderboard;
+    private final PostCache postCache;
+    private final PostSearchIndex searchIndex;
 
-    public PostService(PostRepository postRepository, CommentRepository commentRepository) {
+    public PostService(PostRepository postRepository, LikeCounterService likeCounter,
+                       TopLikedLeaderboard leaderboard, PostCache postCache, PostSearchIndex searchIndex) {
         this.postRepository = postRepository;
-        this.commentRepository = commentRepository;
+        this.likeCounter = likeCounter;
+        this.leaderboard = leaderboard;
+        this.postCache = postCache;
+        this.searchIndex = searchIndex;
     }
 
     // ------------------------------------------------------
     // CREATE POST
     // ------------------------------------------------------
     public Post createPost(Post post) {
+        validateNewPost(post);
+
+        if (post.getLikes() == null) {
+            post.setLikes(0);
+        }
+        post.setDeleted(false);
+        Post saved = postRepository.save(post);
+        // The id may have been looked up before it existed and be negatively cached
+        postCache.invalidate(saved.getId());
+        searchIndex.index(saved);
+        return saved;
+    }
+
+    // Shared with ImportService so bulk-loaded posts obey the same rules
+    static void validateNewPost(Post post) {
         if (post == null) {
             throw new IllegalArgumentException("Post cannot be null");
         }
@@ -35,54 +76,133 @@ public class PostService {
         if (post.getContent() == null || post.getContent().trim().isEmpty()) {
             throw new IllegalArgumentException("Content cannot be empty");
         }
+    }
 
-        if (post.getLikes() == null) {
-            post.setLikes(0);
+    // ------------------------------------------------------
+    // GET ALL POSTS (excluding deleted, filtered in the database)
+    // ------------------------------------------------------
+    public List<Post> getAllPosts() {
+        List<Post> posts = postRepository.findAllActivePosts();
+        return posts == null ? Collections.emptyList() : posts;
+    }
+
+    // ------------------------------------------------------
+    // GET POSTS PAGE (keyset pagination, newest first)
+    // ------------------------------------------------------
+    public CursorPage<PostSummary> getPostsPage(String after, int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
         }
-        post.setDeleted(false);
-        return postRepository.save(post);
+
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        PageRequest window = PageRequest.of(0, limit + 1);
+        List<PostSummary> rows;
+        if (after == null || after.isBlank()) {
+            rows = postRepository.findActivePage(window);
+        } else {
+            KeysetCursor cursor = KeysetCursor.parse(after);
+            rows = postRepository.findActivePageAfter(cursor.createdAt(), cursor.id(), window);
+        }
+        if (rows == null) {
+            rows = Collections.emptyList();
+        }
+
+        List<PostSummary> items = rows.stream()
+                .limit(limit)
+                .map(summary -> summary.withLikes(
+                        (int) likeCounter.effectiveLikes(summary.id(), summary.likes())))
+                .toList();
+
+        if (rows.size() <= limit) {
+            return new CursorPage<>(items, null);
+        }
+        PostSummary last = items.get(items.size() - 1);
+        return new CursorPage<>(items, new KeysetCursor(last.createdAt(), last.id()).toString());
     }
 
     // ------------------------------------------------------
-    // GET ALL POSTS (excluding deleted)
+    // SEARCH POSTS (BM25-ranked, see PostSearchIndex)
     // ------------------------------------------------------
-    public List<Post> getAllPosts() {
-        List<Post> posts = postRepository.findAll();
-        if (posts == null) return Collections.emptyList();
+    public SearchPage<PostSummary> searchPosts(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query cannot be empty");
+        }
+        if (page < 0 || size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        if ((long) (page + 1) * size > MAX_SEARCH_DEPTH) {
+            throw new IllegalArgumentException("Search results are limited to the first " + MAX_SEARCH_DEPTH + " hits");
+        }
+
+        PostSearchIndex.Hits hits = searchIndex.search(query, page * size, size);
+        if (hits.ids().isEmpty()) {
+            return new SearchPage<>(Collections.emptyList(), hits.totalHits(), page, size);
+        }
 
-        return posts.stream()
-                .filter(p -> !Boolean.TRUE.equals(p.isDeleted()))
+        // One query for the page, then put rows back into rank order; ids deleted since
+        // the last index refresh simply drop out
+        Map<Long, PostSummary> byId = postRepository.findSummariesByIds(hits.ids()).stream()
+                .collect(Collectors.toMap(PostSummary::id, Function.identity()));
+        List<PostSummary> items = hits.ids().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(summary -> summary.withLikes(
+                        (int) likeCounter.effectiveLikes(summary.id(), summary.likes())))
                 .toList();
+        return new SearchPage<>(items, hits.totalHits(), page, size);
     }
 
     // ------------------------------------------------------
-    // GET POST BY ID
+    // GET POST BY ID (full post + comments, read through PostCache)
     // ------------------------------------------------------
     public Post getPostById(Long id) {
         if (id == null) throw new IllegalArgumentException("Invalid post ID");
 
-        Post found = postRepository.findById(id)
+        Post found = postCache.get(id)
                 .orElseThrow(() -> new IllegalArgumentException("Post not found"));
 
-        if (Boolean.TRUE.equals(found.isDeleted())) {
-            throw new IllegalArgumentException("Post has been deleted");
-        }
+        return found.withLikes((int) likeCounter.effectiveLikes(id, found.getLikes()));
+    }
+
+    // ------------------------------------------------------
+    // GET POST VERSION (validator for conditional GETs)
+    // ------------------------------------------------------
+    // Served from the cached post when there is one, else from a projection that skips
+    // content and comments; likes include the pending delta, as in getPostById
+    public Optional<PostVersion> getPostVersion(Long id) {
+        if (id == null) throw new IllegalArgumentException("Invalid post ID");
 
-        return found;
+        Optional<PostVersion> version = postCache.peek(id).map(PostVersion::of);
+        if (version.isEmpty()) {
+            version = postRepository.findVersionById(id);
+        }
+        return version.map(v -> v.withLikes((int) likeCounter.effectiveLikes(id, v.likes())));
     }
 
     // ------------------------------------------------------
     // UPDATE POST
     // ------------------------------------------------------
     public Post updatePost(Long id, Post updatedPost) {
+        return updatePost(id, updatedPost, null);
+    }
+
+    /**
+     * Updates title and content. With {@code expectedVersions} (from If-Match), the update only
+     * applies while the post is still at one of those versions; null means unconditional.
+     *
+     * @throws PreconditionFailedException if the post is at another version, or moves on mid-update
+     * @throws ConflictException if an unconditional update races another write
+     */
+    public Post updatePost(Long id, Post updatedPost, Collection<Long> expectedVersions) {
         if (id == null) throw new IllegalArgumentException("Invalid ID");
         if (updatedPost == null) throw new IllegalArgumentException("Post cannot be null");
 
+        // Soft-deleted posts are not found; the version check covers a delete racing this update
         Post existingPost = postRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Post not found"));
 
-        if (Boolean.TRUE.equals(existingPost.isDeleted())) {
-            throw new IllegalArgumentException("Cannot update deleted post");
+        if (expectedVersions != null && !expectedVersions.contains(existingPost.getVersion())) {
+            throw new PreconditionFailedException("Post has been modified");
         }
 
         String newTitle = updatedPost.getTitle();
@@ -104,91 +224,89 @@ public class PostService {
 
         existingPost.setTitle(newTitle);
         existingPost.setContent(newContent);
-        return postRepository.save(existingPost);
+        Post saved;
+        try {
+            // The merge compares the version read above with the row's, so the check holds up to the write
+            saved = postRepository.save(existingPost);
+        } catch (OptimisticLockingFailureException e) {
+            if (expectedVersions != null) {
+                throw new PreconditionFailedException("Post has been modified", e);
+            }
+            throw new ConflictException("Post was modified concurrently, retry the update", e);
+        }
+        postCache.invalidate(id);
+        leaderboard.rename(id, newTitle);
+        searchIndex.index(saved);
+        return saved;
     }
 
     // ------------------------------------------------------
-    // DELETE POST (Hard Delete + Comment Cleanup)
+    // DELETE POST (soft delete; SoftDeletedPostPurger removes the rows later)
     // ------------------------------------------------------
-    @Transactional
     public boolean deletePost(Long id) {
         if (id == null || id <= 0) {
             throw new IllegalArgumentException("Invalid post ID");
         }
 
-        Optional<Post> optionalPost = postRepository.findById(id);
-        if (optionalPost.isEmpty()) {
+        int updated = postRepository.softDelete(id, LocalDateTime.now());
+        postCache.invalidate(id);
+        if (updated == 0) {
             return false;
         }
-
-        Post post = optionalPost.get();
-
-        // Fetch related comments
-        List<Comment> relatedComments = commentRepository.findByPost(post);
-        if (relatedComments == null) {
-            relatedComments = Collections.emptyList();
-        }
-
-        try {
-            if (!relatedComments.isEmpty()) {
-                commentRepository.deleteAll(relatedComments);
-            }
-
-            // ✅ Hard delete (required by tests)
-            postRepository.delete(post);
-            return true;
-
-        } catch (Exception e) {
-            // F2P rollback scenario
-            throw new RuntimeException("Failed to delete post: " + e.getMessage(), e);
-        }
+        searchIndex.remove(id);
+        likeCounter.discard(id);
+        leaderboard.remove(id);
+        return true;
     }
 
     // ------------------------------------------------------
-    // LIKE POST
+    // LIKE POST (write-behind, see LikeCounterService)
     // ------------------------------------------------------
-    @Transactional
-    public synchronized Post likePost(Long id) {
-        Post post = postRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Post not found"));
-
-        if (Boolean.TRUE.equals(post.isDeleted())) {
-            throw new IllegalArgumentException("Cannot like deleted post");
-        }
-
-        if (post.getLikes() == null) post.setLikes(0);
-        post.setLikes(post.getLikes() + 1);
-        return postRepository.save(post);
+    public long likePost(Long id) {
+        TopPost post = findRankingEntry(id);
+        likeCounter.add(id, 1);
+        long likes = likeCounter.effectiveLikes(id, (int) post.likes());
+        leaderboard.update(id, post.title(), likes);
+        return likes;
     }
 
     // ------------------------------------------------------
-    // UNLIKE POST
+    // UNLIKE POST (never drops below zero)
     // ------------------------------------------------------
-    @Transactional
-    public synchronized Post unlikePost(Long id) {
-        Post post = postRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Post not found"));
-
-        if (Boolean.TRUE.equals(post.isDeleted())) {
-            throw new IllegalArgumentException("Cannot unlike deleted post");
+    public long unlikePost(Long id) {
+        TopPost post = findRankingEntry(id);
+        if (likeCounter.effectiveLikes(id, (int) post.likes()) > 0) {
+            likeCounter.add(id, -1);
         }
+        long likes = likeCounter.effectiveLikes(id, (int) post.likes());
+        leaderboard.update(id, post.title(), likes);
+        return likes;
+    }
 
-        if (post.getLikes() == null) post.setLikes(0);
-        if (post.getLikes() > 0) {
-            post.setLikes(post.getLikes() - 1);
+    // ------------------------------------------------------
+    // TOP LIKED POSTS (served from the in-memory leaderboard)
+    // ------------------------------------------------------
+    public List<TopPost> getTopLikedPosts(int limit) {
+        if (limit <= 0 || limit > leaderboard.capacity()) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + leaderboard.capacity());
         }
-        return postRepository.save(post);
+        return leaderboard.top(limit);
     }
 
     // ------------------------------------------------------
-    // TOP LIKED POSTS
+    // HELPERS
     // ------------------------------------------------------
-    public List<Post> getTopLikedPosts() {
-        List<Post> posts = postRepository.findTopLikedPosts();
-        if (posts == null) return Collections.emptyList();
+    // Likes only need the title and the persisted count: a cached post answers without a query,
+    // a miss reads a projection rather than loading the post and its comments into the cache
+    private TopPost findRankingEntry(Long id) {
+        if (id == null) throw new IllegalArgumentException("Invalid post ID");
 
-        return posts.stream()
-                .filter(p -> !Boolean.TRUE.equals(p.isDeleted()))
-                .toList();
+        Optional<Post> cached = postCache.peek(id);
+        if (cached.isPresent()) {
+            Post post = cached.get();
+            return new TopPost(id, post.getTitle(), post.getLikes() == null ? 0 : post.getLikes());
+        }
+        return postRepository.findRankingEntryById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Post not found"));
     }
 }
@@ -0,0 +1,162 @@
+package com.athar.postmanager.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Physically removes posts that were soft-deleted more than {@code retention} ago.
+ *
+ * Candidates are read natively (the entity hides them) from the (deleted, deleted_at) index,
+ * {@code batch-size} ids at a time in id order, and each post is removed with its comments by
+ * PostDeletionService in bounded comment chunks. The purger pauses {@code batch-pause} between
+ * batches so a large backlog drains without crowding out foreground writes, and runs under a
+ * database lease so only one node purges at a time.
+ */
+@Service
+public class SoftDeletedPostPurger {
+
+    private static final Logger log = LoggerFactory.getLogger(SoftDeletedPostPurger.class);
+
+    static final String LEASE_NAME = "soft-deleted-post-purger";
+    // Rows soft-deleted before deleted_at existed have none and are treated as expired
+    static final String SELECT_SQL =
+            "SELECT id FROM posts WHERE deleted = TRUE AND (deleted_at IS NULL OR deleted_at < ?) "
+                    + "AND id > ? ORDER BY id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PostDeletionService postDeletion;
+    private final JobLeaseService leases;
+    private final Duration retention;
+    private final int batchSize;
+    private final Duration batchPause;
+    private final Duration leaseTtl;
+    private final Counter purgedCounter;
+    private final Counter failedCounter;
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    private volatile boolean stopping;
+
+    public SoftDeletedPostPurger(JdbcTemplate jdbcTemplate,
+                                 PostDeletionService postDeletion,
+                                 JobLeaseService leases,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${post.purge.retention:7d}") Duration retention,
+                                 @Value("${post.purge.batch-size:100}") int batchSize,
+                                 @Value("${post.purge.batch-pause:1s}") Duration batchPause,
+                                 @Value("${post.purge.lease-ttl:10m}") Duration leaseTtl) {
+        if (retention.isNegative()) throw new IllegalArgumentException("Purge retention cannot be negative");
+        if (batchSize <= 0) throw new IllegalArgumentException("Purge batch size must be positive");
+        if (leaseTtl.isNegative() || leaseTtl.isZero()) {
+            throw new IllegalArgumentException("Purge lease TTL must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.postDeletion = postDeletion;
+        this.leases = leases;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+        this.leaseTtl = leaseTtl;
+        this.purgedCounter = Counter.builder("posts.purged")
+                .description("Soft-deleted posts physically removed after the retention period")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("posts.purge.failures")
+                .description("Soft-deleted posts the purger failed to remove; retried on the next pass")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${post.purge.initial-delay-ms:120000}",
+               fixedDelayString = "${post.purge.interval-ms:600000}")
+    public void scheduledPurge() {
+        try {
+            purge();
+        } catch (RuntimeException e) {
+            log.warn("Soft-deleted post purge failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs one pass over the expired soft-deleted posts if no other node is purging.
+     *
+     * @return how many posts were removed, or -1 if a pass was already running here or elsewhere
+     */
+    public long purge() {
+        if (!runLock.tryLock()) return -1;
+        try {
+            if (!leases.tryAcquire(LEASE_NAME, leaseTtl)) {
+                log.debug("Soft-deleted post purger lease is held by another node");
+                return -1;
+            }
+            try {
+                return purgeExpired(LocalDateTime.now().minus(retention));
+            } finally {
+                leases.release(LEASE_NAME);
+            }
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private long purgeExpired(LocalDateTime deletedBefore) {
+        Timestamp cutoff = Timestamp.valueOf(deletedBefore);
+        long purged = 0;
+        long afterId = 0;
+        while (!stopping) {
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_SQL, Long.class, cutoff, afterId, batchSize);
+            for (Long id : ids) {
+                try {
+                    if (postDeletion.deleteWithComments(id)) {
+                        purged++;
+                        purgedCounter.increment();
+                    }
+                } catch (RuntimeException e) {
+                    // Skipped for this pass; the id walk moves on so one bad row cannot stall the rest
+                    failedCounter.increment();
+                    log.warn("Could not purge post {}: {}", id, e.getMessage());
+                }
+            }
+            if (ids.size() < batchSize) break;
+            afterId = ids.get(ids.size() - 1);
+
+            if (!leases.renew(LEASE_NAME, leaseTtl)) {
+                log.warn("Soft-deleted post purger lost its lease after post id {}", afterId);
+                break;
+            }
+            if (!pause()) break;
+        }
+        if (purged > 0) {
+            log.info("Purged {} soft-deleted posts", purged);
+        }
+        return purged;
+    }
+
+    // false if interrupted (the application is shutting down)
+    private boolean pause() {
+        if (batchPause.isZero() || batchPause.isNegative()) return true;
+        try {
+            TimeUnit.NANOSECONDS.sleep(batchPause.toNanos());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+}
@@ -0,0 +1,222 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.dto.TopPost;
+import com.athar.postmanager.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory top-K most liked posts.
+ *
+ * Seeded from a LIMIT-ed query at startup and kept current by the like, unlike and delete
+ * paths in {@link PostService}. Reads walk the ranking without locking or touching the database.
+ * A periodic reseed repairs drift from other nodes and from posts that fell out of the board; it
+ * builds a new board off to the side and publishes it with one reference swap, so readers never
+ * see a cleared or half-filled ranking. Updates and removals that land while the new board is being
+ * built are recorded and replayed onto it before the swap, so a reseed never resurrects a deleted post.
+ */
+@Service
+public class TopLikedLeaderboard {
+
+    private static final Logger log = LoggerFactory.getLogger(TopLikedLeaderboard.class);
+
+    private final PostRepository postRepository;
+    private final LikeCounterService likeCounter;
+    private final int capacity;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Replaced whole by reseed; incremental updates mutate the current board under writeLock
+    private volatile Board board = new Board();
+
+    // Serialises reseeds (startup and scheduled) so only one board is being built at a time
+    private final ReentrantLock reseedLock = new ReentrantLock();
+
+    // Guarded by writeLock: latest change per post made while a reseed is building its board;
+    // a null value marks a removal. Null map when no reseed is running.
+    private Map<Long, TopPost> changedDuringReseed;
+
+    public TopLikedLeaderboard(PostRepository postRepository,
+                               LikeCounterService likeCounter,
+                               @Value("${post.leaderboard.size:100}") int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("Leaderboard size must be positive");
+        this.postRepository = postRepository;
+        this.likeCounter = likeCounter;
+        this.capacity = capacity;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // ------------------------------------------------------
+    // READ PATH (O(K), no database)
+    // ------------------------------------------------------
+    public List<TopPost> top(int limit) {
+        List<TopPost> result = new ArrayList<>(Math.min(limit, capacity));
+        for (TopPost entry : board.ranking) {
+            if (result.size() >= limit) break;
+            result.add(entry);
+        }
+        return result;
+    }
+
+    // ------------------------------------------------------
+    // INCREMENTAL UPDATES
+    // ------------------------------------------------------
+    public void update(Long postId, String title, long likes) {
+        if (postId == null) return;
+        TopPost candidate = new TopPost(postId, title, likes);
+
+        // Fast path: a post outside a full board that would not make the cut
+        Board snapshot = board;
+        if (!snapshot.byId.containsKey(postId) && isFull(snapshot) && !outranksLast(snapshot, candidate)) {
+            return;
+        }
+
+        writeLock.lock();
+        try {
+            if (changedDuringReseed != null) changedDuringReseed.put(postId, candidate);
+            apply(board, candidate);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void rename(Long postId, String title) {
+        TopPost current = postId == null ? null : board.byId.get(postId);
+        if (current != null) {
+            update(postId, title, current.likes());
+        }
+    }
+
+    public void remove(Long postId) {
+        if (postId == null) return;
+        writeLock.lock();
+        try {
+            if (changedDuringReseed != null) changedDuringReseed.put(postId, null);
+            removeFrom(board, postId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ------------------------------------------------------
+    // SEEDING
+    // ------------------------------------------------------
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        reseed();
+    }
+
+    @Scheduled(initialDelayString = "${post.leaderboard.refresh-interval-ms:300000}",
+               fixedDelayString = "${post.leaderboard.refresh-interval-ms:300000}")
+    public void reseed() {
+        if (!reseedLock.tryLock()) return;
+        try {
+            writeLock.lock();
+            try {
+                changedDuringReseed = new LinkedHashMap<>();
+            } finally {
+                writeLock.unlock();
+            }
+
+            Board seeded = load();
+            if (seeded == null) return;
+
+            writeLock.lock();
+            try {
+                changedDuringReseed.forEach((postId, change) -> {
+                    if (change == null) removeFrom(seeded, postId);
+                    else apply(seeded, change);
+                });
+                board = seeded;
+            } finally {
+                writeLock.unlock();
+            }
+        } finally {
+            writeLock.lock();
+            try {
+                changedDuringReseed = null;
+            } finally {
+                writeLock.unlock();
+            }
+            reseedLock.unlock();
+        }
+    }
+
+    private Board load() {
+        List<TopPost> posts;
+        try {
+            posts = postRepository.findTopLikedPosts(PageRequest.of(0, capacity));
+        } catch (RuntimeException e) {
+            log.warn("Could not seed top-liked leaderboard: {}", e.getMessage());
+            return null;
+        }
+        if (posts == null) return null;
+
+        Board seeded = new Board();
+        for (TopPost post : posts) {
+            TopPost entry = new TopPost(post.id(), post.title(),
+                    likeCounter.effectiveLikes(post.id(), (int) post.likes()));
+            seeded.byId.put(entry.id(), entry);
+            seeded.ranking.add(entry);
+        }
+        return seeded;
+    }
+
+    // Both helpers run under writeLock
+    private void apply(Board target, TopPost candidate) {
+        TopPost previous = target.byId.get(candidate.id());
+        if (previous != null) {
+            target.ranking.remove(previous);
+        } else if (isFull(target)) {
+            if (!outranksLast(target, candidate)) return;
+            TopPost evicted = target.ranking.pollLast();
+            if (evicted != null) target.byId.remove(evicted.id());
+        }
+        target.byId.put(candidate.id(), candidate);
+        target.ranking.add(candidate);
+    }
+
+    private void removeFrom(Board target, Long postId) {
+        TopPost previous = target.byId.remove(postId);
+        if (previous != null) {
+            target.ranking.remove(previous);
+        }
+    }
+
+    private boolean isFull(Board current) {
+        return current.byId.size() >= capacity;
+    }
+
+    private boolean outranksLast(Board current, TopPost candidate) {
+        TopPost last;
+        try {
+            last = current.ranking.last();
+        } catch (NoSuchElementException e) {
+            return true;
+        }
+        return TopPost.RANKING.compare(candidate, last) < 0;
+    }
+
+    private static final class Board {
+        final ConcurrentSkipListSet<TopPost> ranking = new ConcurrentSkipListSet<>(TopPost.RANKING);
+        final ConcurrentHashMap<Long, TopPost> byId = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,158 @@
+package com.athar.postmanager.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory Bloom filter of taken usernames.
+ *
+ * A negative answer is definite, so availability checks for names that were never registered
+ * are answered without a query; a positive answer only means "maybe" and is confirmed against
+ * the database. Until the first build completes every name is reported as maybe-taken.
+ * Names are folded the way the unique index's accent- and case-insensitive collation
+ * (utf8mb4_0900_ai_ci) compares them, so "José" and "jose" share one key: compatibility
+ * decomposition, combining marks dropped, then a full case fold.
+ */
+@Component
+public class UsernameFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UsernameFilter.class);
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile Bits current;
+    // Non-null while a rebuild is running, so registrations during the scan are not lost
+    private volatile Bits building;
+
+    public UsernameFilter(JdbcTemplate jdbcTemplate,
+                          @Value("${post.auth.username-filter.expected-insertions:1000000}") long expectedInsertions,
+                          @Value("${post.auth.username-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid username filter configuration");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    public boolean isReady() {
+        return current != null;
+    }
+
+    public boolean mightBeTaken(String username) {
+        Bits bits = current;
+        return bits == null || bits.mightContain(normalize(username));
+    }
+
+    public void add(String username) {
+        String key = normalize(username);
+        Bits bits = current;
+        if (bits != null) bits.put(key);
+        Bits pending = building;
+        if (pending != null) pending.put(key);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Bits fresh = new Bits(expectedInsertions, falsePositiveRate);
+        building = fresh;
+        try {
+            long[] count = {0};
+            jdbcTemplate.query("SELECT username FROM users", rs -> {
+                fresh.put(normalize(rs.getString(1)));
+                count[0]++;
+            });
+            current = fresh;
+            log.info("Username filter built from {} users", count[0]);
+        } catch (RuntimeException e) {
+            log.warn("Username filter build failed, availability checks will query the database: {}", e.getMessage());
+        } finally {
+            building = null;
+        }
+    }
+
+    static String normalize(String username) {
+        String decomposed = Normalizer.normalize(username, Normalizer.Form.NFKD);
+        String unaccented = COMBINING_MARKS.matcher(decomposed).replaceAll("");
+        // Upper then lower folds special cases such as "ß" -> "SS" -> "ss" like the collation does
+        return unaccented.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Lock-free bit array with k probes derived from one 128-bit hash (Kirsch-Mitzenmacher).
+     */
+    static final class Bits {
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashCount;
+
+        Bits(long expectedInsertions, double falsePositiveRate) {
+            long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray(Math.toIntExact((bits + 63) / 64));
+            this.bitCount = words.length() * 64L;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        }
+
+        void put(String key) {
+            long[] hash = hash(key);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = index(hash, i);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long value;
+                do {
+                    value = words.get(word);
+                    if ((value & mask) != 0) break;
+                } while (!words.compareAndSet(word, value, value | mask));
+            }
+        }
+
+        boolean mightContain(String key) {
+            long[] hash = hash(key);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = index(hash, i);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(long[] hash, int i) {
+            return Math.floorMod(hash[0] + i * hash[1], bitCount);
+        }
+
+        // Two independent 64-bit FNV-1a style hashes with different offsets, finished with a mix step
+        private static long[] hash(String key) {
+            byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+            long h1 = 0xcbf29ce484222325L;
+            long h2 = 0x84222325cbf29ce4L;
+            for (byte b : bytes) {
+                h1 = (h1 ^ b) * 0x100000001b3L;
+                h2 = (h2 ^ b) * 0x9e3779b97f4a7c15L;
+            }
+            return new long[]{mix(h1), mix(h2) | 1};
+        }
+
+        private static long mix(long z) {
+            z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+            z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            return z ^ (z >>> 33);
+        }
+    }
+}
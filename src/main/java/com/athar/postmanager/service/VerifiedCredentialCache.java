@@ -0,0 +1,70 @@
+package com.athar.postmanager.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+
+/**
+ * Opt-in, short-lived memory of credentials that recently passed a full BCrypt check.
+ *
+ * Only an HMAC of (username, password, stored hash) is kept, under a random key generated at
+ * startup, so a heap dump reveals neither passwords nor anything that can be checked offline.
+ * The stored hash is part of the MAC input, so a password change or rehash invalidates the entry.
+ */
+@Component
+public class VerifiedCredentialCache {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+    private final SecretKeySpec key;
+    private final Cache<String, byte[]> verified;
+
+    public VerifiedCredentialCache(@Value("${post.auth.credential-cache.enabled:false}") boolean enabled,
+                                   @Value("${post.auth.credential-cache.ttl:30s}") Duration ttl,
+                                   @Value("${post.auth.credential-cache.maximum-size:10000}") long maximumSize) {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.enabled = enabled;
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.verified = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maximumSize).build();
+    }
+
+    public boolean isVerified(String username, String rawPassword, String encodedPassword) {
+        if (!enabled) {
+            return false;
+        }
+        byte[] expected = verified.getIfPresent(username);
+        return expected != null && MessageDigest.isEqual(expected, mac(username, rawPassword, encodedPassword));
+    }
+
+    public void remember(String username, String rawPassword, String encodedPassword) {
+        if (enabled) {
+            verified.put(username, mac(username, rawPassword, encodedPassword));
+        }
+    }
+
+    private byte[] mac(String username, String rawPassword, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            // NUL separators keep ("ab", "c") and ("a", "bc") from producing the same input
+            for (String part : new String[]{username, rawPassword, encodedPassword}) {
+                mac.update(part.getBytes(StandardCharsets.UTF_8));
+                mac.update((byte) 0);
+            }
+            return mac.doFinal();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC unavailable", e);
+        }
+    }
+}
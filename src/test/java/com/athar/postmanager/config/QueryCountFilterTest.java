@@ -0,0 +1,89 @@
+package com.athar.postmanager.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryCountFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueryMetrics queryMetrics;
+    private QueryCountFilter filter;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        queryMetrics = new QueryMetrics(meterRegistry, Duration.ofHours(1), 1.0, 1000);
+        filter = new QueryCountFilter(meterRegistry);
+    }
+
+    private static MockHttpServletRequest request(String method, String route) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/posts/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, route);
+        return request;
+    }
+
+    private FilterChain executing(int statements) {
+        return (request, response) -> {
+            for (int i = 0; i < statements; i++) {
+                queryMetrics.record("query", "SELECT 1", 0);
+            }
+        };
+    }
+
+    private DistributionSummary queries(String method, String uri) {
+        return meterRegistry.get("http.server.requests.queries").tag("method", method).tag("uri", uri).summary();
+    }
+
+    @Test
+    void testRecordsStatementsPerRequestByRoute() throws Exception {
+        filter.doFilter(request("GET", "/api/posts/{id}"), new MockHttpServletResponse(), executing(3));
+        filter.doFilter(request("GET", "/api/posts/{id}"), new MockHttpServletResponse(), executing(1));
+        filter.doFilter(request("POST", "/api/posts"), new MockHttpServletResponse(), executing(2));
+
+        DistributionSummary detail = queries("GET", "/api/posts/{id}");
+        assertEquals(2, detail.count());
+        assertEquals(4, detail.totalAmount());
+        assertEquals(3, detail.max());
+        assertEquals(2, queries("POST", "/api/posts").totalAmount());
+    }
+
+    @Test
+    void testCountStartsAtZeroForEachRequest() throws Exception {
+        // Statements run on the thread before the request, e.g. by a scheduled job, are not counted
+        queryMetrics.record("update", "UPDATE posts SET likes = 0", 0);
+
+        filter.doFilter(request("GET", "/api/posts/{id}"), new MockHttpServletResponse(), executing(1));
+
+        assertEquals(1, queries("GET", "/api/posts/{id}").totalAmount());
+    }
+
+    @Test
+    void testUnmatchedRouteIsTaggedUnknown() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/nowhere"), new MockHttpServletResponse(), executing(0));
+
+        assertEquals(1, queries("GET", "UNKNOWN").count());
+    }
+
+    @Test
+    void testAsyncRequestsAreNotRecorded() throws Exception {
+        MockHttpServletRequest request = request("GET", "/api/export/posts");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.startAsync();
+            queryMetrics.record("query", "SELECT 1", 0);
+        });
+
+        assertNull(meterRegistry.find("http.server.requests.queries").summary());
+    }
+}
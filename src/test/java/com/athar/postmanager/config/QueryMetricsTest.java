@@ -0,0 +1,171 @@
+package com.athar.postmanager.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class QueryMetricsTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Statement statement;
+
+    @Mock
+    private PreparedStatement preparedStatement;
+
+    private SimpleMeterRegistry meterRegistry;
+    private final Logger slowLog = (Logger) LoggerFactory.getLogger("com.athar.postmanager.sql.slow");
+    private final ListAppender<ILoggingEvent> slowLines = new ListAppender<>();
+
+    @BeforeEach
+    void setup() throws SQLException {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        slowLines.start();
+        slowLog.addAppender(slowLines);
+        QueryMetrics.resetThreadCount();
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowLog.detachAppender(slowLines);
+    }
+
+    private QueryMetrics metrics(Duration threshold, double sampleRate) {
+        return new QueryMetrics(meterRegistry, threshold, sampleRate, 20);
+    }
+
+    private long timed(String kind) {
+        return meterRegistry.get("db.statements").tag("kind", kind).timer().count();
+    }
+
+    private double slow() {
+        return meterRegistry.get("db.statements.slow").counter().count();
+    }
+
+    @Test
+    void testStatements_AreTimedByKind() throws SQLException {
+        Connection instrumented = metrics(Duration.ofHours(1), 1.0).wrap(dataSource).getConnection();
+
+        Statement plain = instrumented.createStatement();
+        plain.executeQuery("SELECT 1");
+        plain.executeUpdate("DELETE FROM posts");
+        plain.execute("CREATE TABLE t (id INT)");
+        PreparedStatement prepared = instrumented.prepareStatement("INSERT INTO posts (title) VALUES (?)");
+        prepared.setString(1, "A");
+        prepared.addBatch();
+        prepared.executeBatch();
+        prepared.executeLargeUpdate();
+
+        assertEquals(1, timed("query"));
+        assertEquals(2, timed("update"));
+        assertEquals(1, timed("batch"));
+        assertEquals(1, timed("execute"));
+        assertEquals(5, QueryMetrics.threadCount());
+        assertEquals(0, slow());
+        // Everything else goes straight through to the driver
+        verify(statement).executeQuery("SELECT 1");
+        verify(preparedStatement).setString(1, "A");
+        verify(preparedStatement).executeBatch();
+    }
+
+    @Test
+    void testResultsAndFailuresComeFromTheDriver() throws SQLException {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(preparedStatement.executeQuery()).thenReturn(resultSet);
+        when(statement.executeUpdate(anyString())).thenThrow(new SQLException("Deadlock", "40001"));
+        Connection instrumented = metrics(Duration.ofHours(1), 1.0).wrap(dataSource).getConnection();
+
+        assertSame(resultSet, instrumented.prepareStatement("SELECT * FROM posts").executeQuery());
+        SQLException e = assertThrows(SQLException.class,
+                () -> instrumented.createStatement().executeUpdate("UPDATE posts SET likes = 0"));
+        assertEquals("40001", e.getSQLState());
+        // A failed statement still took time on the database
+        assertEquals(1, timed("update"));
+    }
+
+    @Test
+    void testSlowStatements_AreCountedAndLoggedAbbreviated() throws SQLException {
+        Connection instrumented = metrics(Duration.ZERO, 1.0).wrap(dataSource).getConnection();
+
+        instrumented.prepareStatement("SELECT   id,\n  title FROM posts WHERE likes > ?").executeQuery();
+
+        assertEquals(1, slow());
+        assertEquals(1, slowLines.list.size());
+        String line = slowLines.list.get(0).getFormattedMessage();
+        assertTrue(line.startsWith("Slow query took "), line);
+        // Whitespace collapsed, then cut at the 20-character limit
+        assertTrue(line.endsWith(": SELECT id, title FRO..."), line);
+    }
+
+    @Test
+    void testSlowStatements_BelowTheThresholdAreNotCounted() throws SQLException {
+        Connection instrumented = metrics(Duration.ofHours(1), 1.0).wrap(dataSource).getConnection();
+
+        instrumented.createStatement().executeQuery("SELECT 1");
+
+        assertEquals(0, slow());
+        assertTrue(slowLines.list.isEmpty());
+    }
+
+    @Test
+    void testSlowStatements_SampleRateOnlyLimitsLogging() throws SQLException {
+        Connection instrumented = metrics(Duration.ZERO, 0.0).wrap(dataSource).getConnection();
+
+        for (int i = 0; i < 10; i++) {
+            instrumented.createStatement().executeQuery("SELECT 1");
+        }
+
+        assertEquals(10, slow());
+        assertTrue(slowLines.list.isEmpty());
+    }
+
+    @Test
+    void testInvalidSampleRateThrows() {
+        assertThrows(IllegalArgumentException.class, () -> metrics(Duration.ZERO, 1.5));
+        assertThrows(IllegalArgumentException.class, () -> metrics(Duration.ZERO, -0.1));
+    }
+
+    @Test
+    void testWrappedPool_IsStillReachableThroughUnwrap() throws Exception {
+        QueryMetrics metrics = metrics(Duration.ofHours(1), 1.0);
+        try (HikariDataSource pool = new HikariDataSource()) {
+            DataSource wrapped = metrics.wrap(pool);
+
+            assertNotSame(pool, wrapped);
+            assertTrue(wrapped.isWrapperFor(HikariDataSource.class));
+            assertSame(pool, wrapped.unwrap(HikariDataSource.class));
+            // Wrapping is idempotent, so a DataSource post-processed twice is timed once
+            assertSame(wrapped, metrics.wrap(wrapped));
+            ((AutoCloseable) wrapped).close();
+            assertTrue(pool.isClosed());
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.athar.postmanager.controller;
 
+import com.athar.postmanager.dto.CommentTicket;
+import com.athar.postmanager.exception.TooManyRequestsException;
 import com.athar.postmanager.model.Comment;
 import com.athar.postmanager.model.Post;
 import com.athar.postmanager.repository.CommentRepository;
 import com.athar.postmanager.repository.PostRepository;
 import com.athar.postmanager.service.CommentService;
+import com.athar.postmanager.service.CommentWriteQueue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -83,7 +86,8 @@ public class CommentControllerTest {
     // -----------------------------------------------------
 
     private final CommentService commentService = mock(CommentService.class);
-    private final CommentController controller = new CommentController(commentService);
+    private final CommentWriteQueue commentWriteQueue = mock(CommentWriteQueue.class);
+    private final CommentController controller = new CommentController(commentService, commentWriteQueue);
 
     @Test
     void testAddComment_Success() {
@@ -101,7 +105,7 @@ public class CommentControllerTest {
         when(commentService.addComment(comment)).thenReturn(savedComment);
 
         ResponseEntity<Comment> response = controller.addComment(comment);
-        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(200, response.getStatusCode().value());
         assertNotNull(response.getBody());
         assertEquals("Great post!", response.getBody().getContent());
     }
@@ -118,7 +122,7 @@ public class CommentControllerTest {
         when(commentService.getCommentsByPost(savedPost.getId(), 0, 5)).thenReturn(comments);
 
         ResponseEntity<List<Comment>> response = controller.getCommentsByPost(savedPost.getId(), 0, 5);
-        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(200, response.getStatusCode().value());
         assertEquals(1, response.getBody().size());
     }
 
@@ -126,6 +130,25 @@ public class CommentControllerTest {
     void testDeleteComment_NotFound() {
         when(commentService.deleteComment(1L)).thenReturn(false);
         ResponseEntity<Void> response = controller.deleteComment(1L);
-        assertEquals(404, response.getStatusCodeValue());
+        assertEquals(404, response.getStatusCode().value());
+    }
+
+    @Test
+    void testAddCommentAsync_Accepted() {
+        Comment comment = new Comment();
+        when(commentWriteQueue.submit(comment)).thenReturn(CommentTicket.pending("t-1"));
+
+        ResponseEntity<?> response = controller.addCommentAsync(comment);
+        assertEquals(202, response.getStatusCode().value());
+        assertEquals("/api/comments/async/t-1", response.getHeaders().getLocation().toString());
+    }
+
+    @Test
+    void testAddCommentAsync_QueueFull() {
+        Comment comment = new Comment();
+        when(commentWriteQueue.submit(comment)).thenThrow(new TooManyRequestsException("full"));
+
+        ResponseEntity<?> response = controller.addCommentAsync(comment);
+        assertEquals(429, response.getStatusCode().value());
     }
 }
@@ -0,0 +1,75 @@
+package com.athar.postmanager.controller;
+
+import com.athar.postmanager.model.Post;
+import com.athar.postmanager.model.User;
+import com.athar.postmanager.repository.PostRepository;
+import com.athar.postmanager.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
+public class ExportControllerTest {
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    public void testExportPosts_StreamsNdjsonToAdmins() {
+        LocalDateTime from = LocalDateTime.now().minusMinutes(1);
+        Post post = postRepository.save(new Post("Exported", "Content"));
+
+        ResponseEntity<String> response = restTemplate.exchange(
+            "/api/export/posts?from=" + from, HttpMethod.GET, asAdmin(), String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("application/x-ndjson", String.valueOf(response.getHeaders().getContentType()));
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().contains("{\"id\":" + post.getId() + ",\"title\":\"Exported\""));
+    }
+
+    @Test
+    public void testExportPosts_BadParametersReturnBadRequest() {
+        ResponseEntity<String> badField = restTemplate.exchange(
+            "/api/export/posts?by=deletedAt", HttpMethod.GET, asAdmin(), String.class);
+        ResponseEntity<String> badRange = restTemplate.exchange(
+            "/api/export/comments?from=2025-02-01T00:00:00&to=2025-01-01T00:00:00",
+            HttpMethod.GET, asAdmin(), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, badField.getStatusCode());
+        assertEquals("{\"error\":\"'by' must be createdAt or updatedAt\"}", badField.getBody());
+        assertEquals(HttpStatus.BAD_REQUEST, badRange.getStatusCode());
+    }
+
+    @Test
+    public void testExport_RequiresAuthentication() {
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/export/comments", String.class);
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+    }
+
+    private HttpEntity<Void> asAdmin() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(jwtService.issueAccessToken(new User(1L, "admin", "unused", Set.of("ADMIN"))));
+        return new HttpEntity<>(headers);
+    }
+}
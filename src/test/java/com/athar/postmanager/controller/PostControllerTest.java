@@ -2,6 +2,7 @@ package com.athar.postmanager.controller;
 
 import com.athar.postmanager.model.Post;
 import com.athar.postmanager.repository.PostRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,11 +10,17 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.util.Map;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest(webEnvironment = WebEnvironment.RANDOM_PORT)
@@ -80,4 +87,82 @@ public class PostControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, deleteResponse.getStatusCode());
         assertTrue(postRepository.findById(postId).isEmpty(), "Post should be deleted successfully");
     }
+
+    @Test
+    public void testGetPost_RevalidatesWithETag() {
+        Post post = postRepository.save(new Post("Tagged", "Content"));
+        ResponseEntity<String> first = restTemplate.getForEntity("/api/posts/" + post.getId(), String.class);
+        String etag = first.getHeaders().getETag();
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertNotNull(etag);
+        assertEquals(1, first.getHeaders().get(HttpHeaders.ETAG).size());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<String> second = restTemplate.exchange("/api/posts/" + post.getId(),
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+        assertNull(second.getBody());
+        assertEquals(etag, second.getHeaders().getETag());
+    }
+
+    @Test
+    public void testGetPost_TagChangesWhenACommentIsReplaced() {
+        Post post = postRepository.save(new Post("Discussed", "Content"));
+        String url = "/api/posts/" + post.getId();
+        Long first = addComment(post.getId(), "First");
+        String etag = restTemplate.getForEntity(url, String.class).getHeaders().getETag();
+
+        // The comment count ends where it started, but the comments list does not
+        restTemplate.delete("/api/comments/" + first);
+        addComment(post.getId(), "Second");
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(etag);
+        ResponseEntity<String> revalidated = restTemplate.exchange(url, HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+        assertEquals(HttpStatus.OK, revalidated.getStatusCode());
+        assertNotEquals(etag, revalidated.getHeaders().getETag());
+        assertTrue(revalidated.getBody().contains("Second"));
+    }
+
+    private Long addComment(Long postId, String content) {
+        ResponseEntity<JsonNode> created = restTemplate.postForEntity("/api/comments",
+                Map.of("post", Map.of("id", postId), "author", "Reader", "content", content), JsonNode.class);
+        assertEquals(HttpStatus.OK, created.getStatusCode());
+        return created.getBody().get("id").asLong();
+    }
+
+    @Test
+    public void testUpdatePost_IfMatchRejectsStaleTag() {
+        Post post = postRepository.save(new Post("Original", "Content"));
+        String url = "/api/posts/" + post.getId();
+        String etag = restTemplate.getForEntity(url, String.class).getHeaders().getETag();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch(etag);
+        ResponseEntity<String> updated = restTemplate.exchange(url, HttpMethod.PUT,
+                new HttpEntity<>(new Post("First edit", "Content"), headers), String.class);
+        assertEquals(HttpStatus.OK, updated.getStatusCode());
+        assertNotEquals(etag, updated.getHeaders().getETag());
+
+        // A second client still holding the old tag must not overwrite the first edit
+        ResponseEntity<String> stale = restTemplate.exchange(url, HttpMethod.PUT,
+                new HttpEntity<>(new Post("Second edit", "Content"), headers), String.class);
+        assertEquals(HttpStatus.PRECONDITION_FAILED, stale.getStatusCode());
+        assertEquals("First edit", postRepository.findById(post.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    public void testGetPostsPage_RevalidatesWithETag() {
+        postRepository.save(new Post("Listed", "Content"));
+        ResponseEntity<String> first = restTemplate.getForEntity("/api/posts", String.class);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(first.getHeaders().getETag());
+        ResponseEntity<String> second = restTemplate.exchange("/api/posts", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+        assertEquals(HttpStatus.NOT_MODIFIED, second.getStatusCode());
+    }
 }
@@ -5,8 +5,11 @@ import com.athar.postmanager.model.Post;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -21,6 +24,9 @@ public class CommentRepositoryTest {
     @Autowired
     private PostRepository postRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     @Test
     void testDeleteByPostRemovesAllComments() {
         Post post = new Post(null, "Hello", "World");
@@ -34,4 +40,71 @@ public class CommentRepositoryTest {
         List<Comment> remaining = commentRepository.findByPost(post);
         assertThat(remaining).isEmpty();
     }
+
+    @Test
+    void testDeleteChunkByPostIdIsBoundedAndScopedToPost() {
+        Post post = postRepository.save(new Post(null, "Chunked", "Delete"));
+        Post other = postRepository.save(new Post(null, "Other", "Post"));
+        for (int i = 0; i < 5; i++) {
+            commentRepository.save(new Comment(null, post, "A", "Comment " + i));
+        }
+        commentRepository.save(new Comment(null, other, "B", "Keep me"));
+
+        assertThat(commentRepository.deleteChunkByPostId(post.getId(), 3)).isEqualTo(3);
+        assertThat(commentRepository.deleteChunkByPostId(post.getId(), 3)).isEqualTo(2);
+        assertThat(commentRepository.deleteChunkByPostId(post.getId(), 3)).isZero();
+        assertThat(commentRepository.findByPost(other)).hasSize(1);
+    }
+
+    @Test
+    void testKeysetPagesByPostIdWalkAllCommentsOnce() {
+        Post post = postRepository.save(new Post(null, "Keyset", "Comments"));
+        LocalDateTime sameInstant = LocalDateTime.of(2025, 2, 1, 8, 0);
+        for (int i = 0; i < 5; i++) {
+            Comment comment = new Comment(null, post, "U" + i, "Comment " + i);
+            comment.setCreatedAt(sameInstant); // ties are broken by id
+            commentRepository.save(comment);
+        }
+
+        List<Comment> page1 = commentRepository.findPageByPostId(post.getId(), PageRequest.of(0, 3));
+        Comment last = page1.get(page1.size() - 1);
+        List<Comment> page2 = commentRepository.findPageByPostIdAfter(
+                post.getId(), last.getCreatedAt(), last.getId(), PageRequest.of(0, 3));
+
+        assertThat(page1).hasSize(3);
+        assertThat(page2).hasSize(2);
+        assertThat(page1.get(0).getId()).isGreaterThan(page1.get(1).getId());
+        assertThat(page2).extracting(Comment::getId).doesNotContainAnyElementsOf(
+                page1.stream().map(Comment::getId).toList());
+    }
+
+    @Test
+    void testKeysetPagesSkipCommentsOfASoftDeletedPost() {
+        Post post = postRepository.save(new Post(null, "Soft", "Deleted"));
+        Post other = postRepository.save(new Post(null, "Still", "Here"));
+        commentRepository.save(new Comment(null, post, "A", "Hidden"));
+        commentRepository.save(new Comment(null, other, "B", "Visible"));
+        postRepository.flush();
+        postRepository.softDelete(post.getId(), LocalDateTime.now());
+        entityManager.clear();
+
+        assertThat(commentRepository.findPageByPostId(post.getId(), PageRequest.of(0, 10))).isEmpty();
+        assertThat(commentRepository.findPageByPostIdAfter(post.getId(), LocalDateTime.now().plusDays(1),
+                Long.MAX_VALUE, PageRequest.of(0, 10))).isEmpty();
+        assertThat(commentRepository.findPageByPostId(other.getId(), PageRequest.of(0, 10)))
+                .extracting(Comment::getContent).containsExactly("Visible");
+    }
+
+    @Test
+    void testRecentlyCommentedPostIdsAreNewestFirst() {
+        Post older = postRepository.save(new Post(null, "Older", "Post"));
+        Post newer = postRepository.save(new Post(null, "Newer", "Post"));
+        commentRepository.save(new Comment(null, older, "A", "First"));
+        commentRepository.save(new Comment(null, newer, "B", "Second"));
+        commentRepository.save(new Comment(null, newer, "C", "Third"));
+
+        List<Long> postIds = commentRepository.findRecentlyCommentedPostIds(PageRequest.of(0, 2));
+
+        assertThat(postIds).containsExactly(newer.getId(), newer.getId());
+    }
 }
@@ -0,0 +1,154 @@
+package com.athar.postmanager.repository;
+
+import com.athar.postmanager.dto.PostSummary;
+import com.athar.postmanager.dto.PostVersion;
+import com.athar.postmanager.dto.TopPost;
+import com.athar.postmanager.model.Comment;
+import com.athar.postmanager.model.Post;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class PostRepositoryTest {
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void testKeysetPagesReturnSummariesWithoutDeletedPosts() {
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 12, 0);
+        Post first = null;
+        for (int i = 1; i <= 5; i++) {
+            Post post = new Post("Title " + i, "x".repeat(PostSummary.EXCERPT_LENGTH + 50));
+            post.setCreatedAt(base.plusMinutes(i));
+            post = postRepository.save(post);
+            if (first == null) first = post;
+        }
+        Post deleted = new Post("Deleted", "Gone");
+        deleted.setCreatedAt(base.plusMinutes(10));
+        deleted.markDeleted();
+        postRepository.save(deleted);
+
+        commentRepository.save(new Comment(null, first, "A", "One"));
+        commentRepository.save(new Comment(null, first, "B", "Two"));
+        // Summaries read the denormalized count, which CommentService maintains alongside inserts
+        postRepository.adjustCommentCount(first.getId(), 2);
+
+        List<PostSummary> page1 = postRepository.findActivePage(PageRequest.of(0, 3));
+        assertThat(page1).extracting(PostSummary::title).containsExactly("Title 5", "Title 4", "Title 3");
+        assertThat(page1.get(0).excerpt()).hasSize(PostSummary.EXCERPT_LENGTH);
+
+        PostSummary last = page1.get(2);
+        List<PostSummary> page2 = postRepository.findActivePageAfter(last.createdAt(), last.id(), PageRequest.of(0, 3));
+        assertThat(page2).extracting(PostSummary::title).containsExactly("Title 2", "Title 1");
+        assertThat(page2.get(1).commentCount()).isEqualTo(2L);
+    }
+
+    @Test
+    void testFindActiveAfterIdWalksInIdOrderAndSummariesByIdsSkipDeleted() {
+        Post a = postRepository.save(new Post("A", "a"));
+        Post b = postRepository.save(new Post("B", "b"));
+        Post deleted = new Post("Deleted", "gone");
+        deleted.markDeleted();
+        deleted = postRepository.save(deleted);
+        Post c = postRepository.save(new Post("C", "c"));
+
+        List<Post> firstBatch = postRepository.findActiveAfterId(0L, PageRequest.of(0, 2));
+        assertThat(firstBatch).extracting(Post::getId).containsExactly(a.getId(), b.getId());
+        List<Post> secondBatch = postRepository.findActiveAfterId(b.getId(), PageRequest.of(0, 2));
+        assertThat(secondBatch).extracting(Post::getId).containsExactly(c.getId());
+
+        List<PostSummary> summaries = postRepository.findSummariesByIds(List.of(c.getId(), deleted.getId(), a.getId()));
+        assertThat(summaries).extracting(PostSummary::id).containsExactlyInAnyOrder(a.getId(), c.getId());
+    }
+
+    @Test
+    void testSoftDeleteHidesThePostFromEntityQueries() {
+        Post post = postRepository.saveAndFlush(new Post("Soft", "Deleted"));
+        Long id = post.getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        assertThat(postRepository.softDelete(id, now)).isEqualTo(1);
+        assertThat(postRepository.softDelete(id, now)).isZero(); // already deleted
+        entityManager.clear();
+
+        assertThat(postRepository.findById(id)).isEmpty();
+        assertThat(postRepository.findWithCommentsById(id)).isEmpty();
+        assertThat(postRepository.findActiveIds(List.of(id))).isEmpty();
+        assertThat(postRepository.findAllActivePosts()).extracting(Post::getId).doesNotContain(id);
+
+        assertThat(postRepository.deleteByIdInBulk(id)).isEqualTo(1);
+    }
+
+    @Test
+    void testFindRankingEntryByIdReadsTitleAndLikes() {
+        Post post = new Post("Ranked", "Content");
+        post.setLikes(3);
+        post = postRepository.saveAndFlush(post);
+
+        TopPost entry = postRepository.findRankingEntryById(post.getId()).orElseThrow();
+
+        assertThat(entry).isEqualTo(new TopPost(post.getId(), "Ranked", 3));
+        assertThat(postRepository.findRankingEntryById(post.getId() + 1000)).isEmpty();
+    }
+
+    @Test
+    void testFindVersionByIdProjectsTheValidatorFields() {
+        Post post = postRepository.saveAndFlush(new Post("Versioned", "Content"));
+
+        postRepository.adjustCommentCount(post.getId(), 1);
+        postRepository.adjustCommentCount(post.getId(), -1);
+
+        PostVersion version = postRepository.findVersionById(post.getId()).orElseThrow();
+
+        assertThat(version.id()).isEqualTo(post.getId());
+        assertThat(version.version()).isEqualTo(post.getVersion());
+        // An add and a delete cancel out in the count but not in the comments version
+        assertThat(version.commentCount()).isZero();
+        assertThat(version.commentsVersion()).isEqualTo(2L);
+        assertThat(postRepository.findVersionById(post.getId() + 1000)).isEmpty();
+    }
+
+    @Test
+    void testHotPostQueriesForCacheWarmUp() {
+        Post popular = postRepository.save(new Post("Popular", "p"));
+        Post quiet = postRepository.save(new Post("Quiet", "q"));
+        Post deleted = new Post("Deleted", "d");
+        deleted.markDeleted();
+        deleted = postRepository.save(deleted);
+        commentRepository.save(new Comment(null, popular, "A", "One"));
+        commentRepository.save(new Comment(null, popular, "B", "Two"));
+        postRepository.flush();
+        entityManager.getEntityManager()
+                .createQuery("UPDATE Post p SET p.likes = 10 WHERE p.id = :id")
+                .setParameter("id", popular.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        assertThat(postRepository.findTopLikedIds(PageRequest.of(0, 10)))
+                .startsWith(popular.getId())
+                .contains(quiet.getId())
+                .doesNotContain(deleted.getId());
+
+        List<Post> loaded = postRepository.findWithCommentsByIdIn(List.of(popular.getId(), quiet.getId(), deleted.getId()));
+        assertThat(loaded).extracting(Post::getId).containsExactlyInAnyOrder(popular.getId(), quiet.getId());
+        assertThat(loaded).filteredOn(post -> post.getId().equals(popular.getId()))
+                .singleElement().satisfies(post -> assertThat(post.getComments()).hasSize(2));
+    }
+}
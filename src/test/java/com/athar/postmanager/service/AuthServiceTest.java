@@ -1,13 +1,18 @@
 package com.athar.postmanager.service;
 
+import com.athar.postmanager.exception.ConflictException;
+import com.athar.postmanager.exception.TooManyRequestsException;
 import com.athar.postmanager.model.User;
 import com.athar.postmanager.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
 
@@ -19,12 +24,20 @@ public class AuthServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private UsernameFilter usernameFilter;
+
+    private PasswordHasher passwordHasher;
     private AuthService authService;
 
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LoginThrottle loginThrottle = new LoginThrottle(registry, Duration.ofMinutes(1), 3, 5);
+        passwordHasher = spy(new PasswordHasher(registry, 4, 0.5, 8, Duration.ofSeconds(5)));
+        VerifiedCredentialCache credentialCache = new VerifiedCredentialCache(true, Duration.ofMinutes(1), 100);
+        authService = new AuthService(userRepository, passwordHasher, loginThrottle, credentialCache, usernameFilter);
     }
 
     @Test
@@ -36,12 +49,34 @@ public class AuthServiceTest {
         User user = authService.register("athar", "12345");
         assertEquals("athar", user.getUsername());
         verify(userRepository).save(any(User.class));
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(usernameFilter).add("athar");
     }
 
     @Test
     void testRegister_UsernameExists() {
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("duplicate",
+                new SQLException("Duplicate entry 'athar' for key 'users.UK_r43af9ap4edm43mmtq01oddj6'", "23000", 1062)));
         when(userRepository.existsByUsername("athar")).thenReturn(true);
-        assertThrows(IllegalArgumentException.class, () -> authService.register("athar", "pass"));
+
+        assertThrows(ConflictException.class, () -> authService.register("athar", "pass"));
+        verify(usernameFilter).add("athar");
+    }
+
+    @Test
+    void testRegister_OtherConstraintFailuresAreNotConflicts() {
+        DataIntegrityViolationException notNull = new DataIntegrityViolationException("not null",
+                new SQLException("Column 'password' cannot be null", "23000", 1048));
+        DataIntegrityViolationException otherKey = new DataIntegrityViolationException("duplicate",
+                new SQLException("Duplicate entry '7' for key 'users.PRIMARY'", "23000", 1062));
+        when(userRepository.save(any(User.class))).thenThrow(notNull, otherKey);
+        when(userRepository.existsByUsername("athar")).thenReturn(false);
+
+        assertSame(notNull, assertThrows(DataIntegrityViolationException.class,
+                () -> authService.register("athar", "pass")));
+        assertSame(otherKey, assertThrows(DataIntegrityViolationException.class,
+                () -> authService.register("athar", "pass")));
+        verify(usernameFilter, never()).add(anyString());
     }
 
     @Test
@@ -60,4 +95,98 @@ public class AuthServiceTest {
 
         assertThrows(IllegalArgumentException.class, () -> authService.login("athar", "wrongpass"));
     }
+
+    @Test
+    void testLogin_ThrottledPerUsernameBeforeLookup() {
+        when(userRepository.findByUsername("athar")).thenReturn(Optional.empty());
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IllegalArgumentException.class, () -> authService.login("athar", "guess", "10.0.0.1"));
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> authService.login("athar", "guess", "10.0.0.2"));
+        verify(userRepository, times(3)).findByUsername("athar");
+    }
+
+    @Test
+    void testLogin_ThrottledPerAddress() {
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.empty());
+        for (int i = 0; i < 5; i++) {
+            String username = "user" + i;
+            assertThrows(IllegalArgumentException.class, () -> authService.login(username, "guess", "10.0.0.1"));
+        }
+
+        assertThrows(TooManyRequestsException.class, () -> authService.login("fresh", "guess", "10.0.0.1"));
+        assertThrows(IllegalArgumentException.class, () -> authService.login("fresh", "guess", "10.0.0.9"));
+    }
+
+    @Test
+    void testLogin_SuccessResetsUsernameWindow() {
+        User mockUser = new User(1L, "athar", new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder(4).encode("12345"), Set.of("USER"));
+        when(userRepository.findByUsername("athar")).thenReturn(Optional.of(mockUser));
+        assertThrows(IllegalArgumentException.class, () -> authService.login("athar", "wrong", null));
+        assertThrows(IllegalArgumentException.class, () -> authService.login("athar", "wrong", null));
+
+        authService.login("athar", "12345", null);
+
+        assertThrows(IllegalArgumentException.class, () -> authService.login("athar", "wrong", null));
+        assertThrows(IllegalArgumentException.class, () -> authService.login("athar", "wrong", null));
+    }
+
+    @Test
+    void testLogin_MissingCredentials() {
+        assertThrows(IllegalArgumentException.class, () -> authService.login(null, "12345"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testLogin_LegacyHashIsUpgraded() {
+        User mockUser = new User(1L, "athar", new org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder(4).encode("12345"), Set.of("USER"));
+        when(userRepository.findByUsername("athar")).thenReturn(Optional.of(mockUser));
+
+        authService.login("athar", "12345");
+
+        assertTrue(mockUser.getPassword().startsWith("{bcrypt}"));
+        verify(userRepository).save(mockUser);
+        assertFalse(passwordHasher.needsUpgrade(mockUser.getPassword()));
+    }
+
+    @Test
+    void testLogin_CurrentHashIsNotRewritten() {
+        User mockUser = new User(1L, "athar", passwordHasher.encode("12345"), Set.of("USER"));
+        when(userRepository.findByUsername("athar")).thenReturn(Optional.of(mockUser));
+
+        authService.login("athar", "12345");
+
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void testLogin_RepeatWithinTtlSkipsBcrypt() {
+        User mockUser = new User(1L, "athar", passwordHasher.encode("12345"), Set.of("USER"));
+        when(userRepository.findByUsername("athar")).thenReturn(Optional.of(mockUser));
+
+        authService.login("athar", "12345");
+        authService.login("athar", "12345");
+
+        verify(passwordHasher, times(1)).matches(anyString(), anyString());
+        // A different password is never answered from the cache
+        assertThrows(IllegalArgumentException.class, () -> authService.login("athar", "wrong"));
+        verify(passwordHasher, times(2)).matches(anyString(), anyString());
+    }
+
+    @Test
+    void testIsUsernameAvailable_DefiniteNegativeSkipsDatabase() {
+        when(usernameFilter.mightBeTaken("fresh")).thenReturn(false);
+
+        assertTrue(authService.isUsernameAvailable("fresh"));
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void testIsUsernameAvailable_MaybeTakenIsConfirmed() {
+        when(usernameFilter.mightBeTaken("athar")).thenReturn(true);
+        when(userRepository.existsByUsername("athar")).thenReturn(true);
+
+        assertFalse(authService.isUsernameAvailable("athar"));
+    }
 }
@@ -0,0 +1,62 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.model.Comment;
+import com.athar.postmanager.model.Post;
+import com.athar.postmanager.repository.CommentRepository;
+import com.athar.postmanager.repository.PostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class CommentCountReconcilerTest {
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private long storedCount(Long postId) {
+        return jdbcTemplate.queryForObject("SELECT comment_count FROM posts WHERE id = ?", Long.class, postId);
+    }
+
+    @Test
+    void testReconcileRepairsDriftAcrossChunksAndLeavesCorrectRowsAlone() {
+        Post undercounted = postRepository.save(new Post("Under", "counted"));
+        Post overcounted = postRepository.save(new Post("Over", "counted"));
+        Post correct = postRepository.save(new Post("Correct", "count"));
+        for (int i = 0; i < 3; i++) {
+            commentRepository.save(new Comment(null, undercounted, "A", "Comment " + i));
+        }
+        commentRepository.save(new Comment(null, correct, "B", "Only one"));
+        postRepository.flush();
+        postRepository.adjustCommentCount(overcounted.getId(), 5);
+        postRepository.adjustCommentCount(correct.getId(), 1);
+
+        PostCache postCache = mock(PostCache.class);
+        CommentCountReconciler reconciler =
+                new CommentCountReconciler(jdbcTemplate, postCache, new SimpleMeterRegistry(), 2);
+
+        assertEquals(2, reconciler.reconcile());
+        assertEquals(3, storedCount(undercounted.getId()));
+        assertEquals(0, storedCount(overcounted.getId()));
+        assertEquals(1, storedCount(correct.getId()));
+        verify(postCache).invalidateAll(List.of(undercounted.getId(), overcounted.getId()));
+
+        assertEquals(0, reconciler.reconcile());
+    }
+}
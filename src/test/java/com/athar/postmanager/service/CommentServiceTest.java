@@ -1,5 +1,7 @@
 package com.athar.postmanager.service;
 
+import com.athar.postmanager.dto.CommentBatchResult;
+import com.athar.postmanager.dto.CursorPage;
 import com.athar.postmanager.model.Comment;
 import com.athar.postmanager.model.Post;
 import com.athar.postmanager.repository.CommentRepository;
@@ -9,11 +11,16 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -28,6 +35,12 @@ public class CommentServiceTest {
     @Mock
     private PostRepository postRepository; // ✅ Added mock
 
+    @Mock
+    private PostCache postCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @InjectMocks
     private CommentService commentService;
 
@@ -41,7 +54,9 @@ public class CommentServiceTest {
 
     @Test
     void testAddComment_Success() {
-        Comment comment = new Comment(null, mockPost, "Athar", "Nice post!");
+        Comment comment = new Comment(null, 1L, "Athar", "Nice post!");
+        when(postRepository.findActiveIds(List.of(1L))).thenReturn(List.of(1L));
+        when(postRepository.getReferenceById(1L)).thenReturn(mockPost);
         when(commentRepository.save(comment))
                 .thenReturn(new Comment(1L, mockPost, "Athar", "Nice post!"));
 
@@ -49,6 +64,18 @@ public class CommentServiceTest {
 
         assertNotNull(saved);
         verify(commentRepository).save(comment);
+        assertSame(mockPost, comment.getPost());
+        verify(postRepository).adjustCommentCount(1L, 1);
+        verify(postCache).invalidate(1L);
+    }
+
+    @Test
+    void testAddComment_UnknownOrDeletedPostThrows() {
+        Comment comment = new Comment(null, 99L, "Athar", "Nice post!");
+        when(postRepository.findActiveIds(List.of(99L))).thenReturn(Collections.emptyList());
+
+        assertThrows(IllegalArgumentException.class, () -> commentService.addComment(comment));
+        verify(commentRepository, never()).save(any());
     }
 
     @Test
@@ -57,6 +84,67 @@ public class CommentServiceTest {
         assertThrows(IllegalArgumentException.class, () -> commentService.addComment(comment));
     }
 
+    @Test
+    void testAddComments_ValidItemsSavedInOneBatch_InvalidItemsReported() {
+        Post other = new Post(2L, "Gone", "Post");
+        List<Comment> batch = Arrays.asList(
+                new Comment(null, mockPost, "A", "First"),
+                new Comment(null, mockPost, "", "No author"),
+                new Comment(null, other, "B", "Missing post"),
+                new Comment(null, mockPost, "C", "Third")
+        );
+        when(postRepository.findActiveIds(anyCollection())).thenReturn(List.of(1L));
+        when(postRepository.getReferenceById(1L)).thenReturn(mockPost);
+        when(commentRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Comment> toSave = inv.getArgument(0);
+            long id = 100;
+            for (Comment c : toSave) c.setId(id++);
+            return toSave;
+        });
+
+        CommentBatchResult result = commentService.addComments(batch);
+
+        assertEquals(2, result.created());
+        assertEquals(2, result.failed());
+        assertEquals(100L, result.results().get(0).id());
+        assertEquals("Author cannot be empty", result.results().get(1).error());
+        assertEquals("Post not found", result.results().get(2).error());
+        assertEquals(101L, result.results().get(3).id());
+        verify(commentRepository, times(1)).saveAll(argThat(list -> ((List<?>) list).size() == 2));
+        verify(commentRepository, never()).save(any());
+        verify(postRepository, times(1)).findActiveIds(anyCollection());
+        verify(postRepository).adjustCommentCount(1L, 2L);
+        verify(postCache).invalidate(1L);
+    }
+
+    @Test
+    void testAddComments_BatchFailureFallsBackToPerItemErrors() {
+        Comment good = new Comment(null, mockPost, "A", "Fine");
+        Comment bad = new Comment(null, mockPost, "B", "Too long for the column");
+        when(postRepository.findActiveIds(anyCollection())).thenReturn(List.of(1L));
+        when(postRepository.getReferenceById(1L)).thenReturn(mockPost);
+        when(commentRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("data too long"));
+        when(commentRepository.save(good)).thenAnswer(inv -> { good.setId(7L); return good; });
+        when(commentRepository.save(bad)).thenThrow(new DataIntegrityViolationException("data too long"));
+
+        CommentBatchResult result = commentService.addComments(Arrays.asList(good, bad));
+
+        assertEquals(1, result.created());
+        assertEquals(7L, result.results().get(0).id());
+        assertNotNull(result.results().get(1).error());
+        // Only the row that was stored is counted
+        verify(postRepository, never()).adjustCommentCount(1L, 2L);
+        verify(postRepository, times(1)).adjustCommentCount(1L, 1);
+    }
+
+    @Test
+    void testAddComments_EmptyOrOversizedBatchThrows() {
+        assertThrows(IllegalArgumentException.class, () -> commentService.addComments(List.of()));
+        List<Comment> tooMany = Collections.nCopies(CommentService.MAX_BATCH_SIZE + 1,
+                new Comment(null, mockPost, "A", "x"));
+        assertThrows(IllegalArgumentException.class, () -> commentService.addComments(tooMany));
+    }
+
     @Test
     void testGetCommentsByPost_Paginated() {
         when(postRepository.findById(mockPost.getId())).thenReturn(Optional.of(mockPost)); // ✅ Added
@@ -76,15 +164,62 @@ public class CommentServiceTest {
         verify(commentRepository).findByPostOrderByCreatedAtDesc(eq(mockPost), any(PageRequest.class));
     }
 
+    @Test
+    void testGetCommentsPage_NoParentFetchNoCount() {
+        LocalDateTime now = LocalDateTime.of(2025, 2, 1, 8, 0);
+        Comment c3 = new Comment(3L, mockPost, "U3", "c");
+        c3.setCreatedAt(now);
+        Comment c2 = new Comment(2L, mockPost, "U2", "b");
+        c2.setCreatedAt(now.minusSeconds(1));
+        Comment c1 = new Comment(1L, mockPost, "U1", "a");
+        c1.setCreatedAt(now.minusSeconds(2));
+        when(commentRepository.findPageByPostId(eq(1L), any(Pageable.class))).thenReturn(Arrays.asList(c3, c2, c1));
+
+        CursorPage<Comment> page = commentService.getCommentsPage(1L, null, 2);
+
+        assertEquals(2, page.items().size());
+        assertEquals("2025-02-01T07:59:59,2", page.nextCursor());
+        verifyNoInteractions(postRepository);
+        verify(commentRepository, never()).findByPostOrderByCreatedAtDesc(any(), any());
+    }
+
+    @Test
+    void testGetCommentsPage_WithCursor() {
+        LocalDateTime at = LocalDateTime.of(2025, 2, 1, 7, 59, 59);
+        when(commentRepository.findPageByPostIdAfter(eq(1L), eq(at), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(new Comment(1L, mockPost, "U1", "a")));
+
+        CursorPage<Comment> page = commentService.getCommentsPage(1L, "2025-02-01T07:59:59,2", 2);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+        assertThrows(IllegalArgumentException.class, () -> commentService.getCommentsPage(1L, "bogus", 2));
+        assertThrows(IllegalArgumentException.class, () -> commentService.getCommentsPage(1L, null, 0));
+    }
+
     @Test
     void testDeleteComment_Success() {
         Comment comment = new Comment(1L, mockPost, "A", "Hi");
         when(commentRepository.findById(1L)).thenReturn(Optional.of(comment));
 
+        when(commentRepository.deleteByIdInBulk(1L)).thenReturn(1);
+
         boolean deleted = commentService.deleteComment(1L);
 
         assertTrue(deleted);
-        verify(commentRepository).delete(comment);
+        verify(commentRepository).deleteByIdInBulk(1L);
+        verify(postRepository).adjustCommentCount(1L, -1);
+        verify(postCache).invalidate(1L);
+    }
+
+    @Test
+    void testDeleteComment_ConcurrentDeleteDoesNotDecrementTwice() {
+        Comment comment = new Comment(1L, mockPost, "A", "Hi");
+        when(commentRepository.findById(1L)).thenReturn(Optional.of(comment));
+        when(commentRepository.deleteByIdInBulk(1L)).thenReturn(0);
+
+        assertFalse(commentService.deleteComment(1L));
+        verify(postRepository, never()).adjustCommentCount(anyLong(), anyLong());
     }
 
     @Test
@@ -0,0 +1,136 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.dto.CommentBatchResult;
+import com.athar.postmanager.dto.CommentTicket;
+import com.athar.postmanager.exception.TooManyRequestsException;
+import com.athar.postmanager.model.Comment;
+import com.athar.postmanager.model.Post;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+public class CommentWriteQueueTest {
+
+    private CommentService commentService;
+    private CommentWriteQueue queue;
+
+    @BeforeEach
+    void setup() {
+        commentService = mock(CommentService.class);
+        when(commentService.addComments(anyList())).thenAnswer(invocation -> {
+            List<Comment> comments = invocation.getArgument(0);
+            List<CommentBatchResult.Item> items = new ArrayList<>();
+            for (int i = 0; i < comments.size(); i++) {
+                items.add(CommentBatchResult.Item.created(i, 100L + i));
+            }
+            return CommentBatchResult.of(items);
+        });
+        queue = newQueue(3);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        queue.shutdown();
+    }
+
+    private CommentWriteQueue newQueue(int capacity) {
+        return new CommentWriteQueue(commentService, new SimpleMeterRegistry(), capacity, 2,
+                Duration.ofMillis(5), Duration.ofSeconds(5), Duration.ofMinutes(1));
+    }
+
+    private static Comment comment(String content) {
+        return new Comment(null, new Post(1L, "Hello", "World"), "Athar", content);
+    }
+
+    @Test
+    void testSubmit_ReturnsPendingTicket() {
+        CommentTicket ticket = queue.submit(comment("a"));
+
+        assertEquals(CommentTicket.Status.PENDING, ticket.status());
+        assertEquals(1, queue.depth());
+        assertTrue(queue.getTicket(ticket.id()).isPresent());
+        verify(commentService).validate(any(Comment.class));
+    }
+
+    @Test
+    void testSubmit_MissingPostIsRejected() {
+        Comment comment = new Comment(null, (Post) null, "Athar", "orphan");
+        assertThrows(IllegalArgumentException.class, () -> queue.submit(comment));
+        assertEquals(0, queue.depth());
+    }
+
+    @Test
+    void testSubmit_QueueFullThrows() {
+        queue.submit(comment("a"));
+        queue.submit(comment("b"));
+        queue.submit(comment("c"));
+
+        assertThrows(TooManyRequestsException.class, () -> queue.submit(comment("d")));
+        assertEquals(3, queue.depth());
+    }
+
+    @Test
+    void testWriter_GroupCommitsInBatchesAndResolvesTickets() throws InterruptedException {
+        CommentTicket first = queue.submit(comment("a"));
+        CommentTicket second = queue.submit(comment("b"));
+        CommentTicket third = queue.submit(comment("c"));
+
+        queue.start();
+        queue.shutdown();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Comment>> batches = ArgumentCaptor.forClass(List.class);
+        verify(commentService, times(2)).addComments(batches.capture());
+        assertEquals(2, batches.getAllValues().get(0).size());
+        assertEquals(1, batches.getAllValues().get(1).size());
+
+        assertEquals(CommentTicket.Status.STORED, queue.getTicket(first.id()).orElseThrow().status());
+        assertEquals(101L, queue.getTicket(second.id()).orElseThrow().commentId());
+        assertEquals(100L, queue.getTicket(third.id()).orElseThrow().commentId());
+    }
+
+    @Test
+    void testWriter_FailedItemsAreReportedOnTicket() throws InterruptedException {
+        when(commentService.addComments(anyList()))
+                .thenReturn(CommentBatchResult.of(List.of(CommentBatchResult.Item.failed(0, "Post not found"))));
+        CommentTicket ticket = queue.submit(comment("a"));
+
+        queue.start();
+        queue.shutdown();
+
+        CommentTicket result = queue.getTicket(ticket.id()).orElseThrow();
+        assertEquals(CommentTicket.Status.FAILED, result.status());
+        assertEquals("Post not found", result.error());
+    }
+
+    @Test
+    void testShutdown_StopsIntake() throws InterruptedException {
+        queue.start();
+        queue.shutdown();
+
+        assertThrows(IllegalStateException.class, () -> queue.submit(comment("late")));
+    }
+
+    @Test
+    void testShutdown_FailsTicketsTheWriterNeverTook() throws InterruptedException {
+        // Not started: nothing drains the queue, as when an item lands after the writer exited
+        CommentTicket ticket = queue.submit(comment("stranded"));
+
+        queue.shutdown();
+
+        assertEquals(0, queue.depth());
+        CommentTicket resolved = queue.getTicket(ticket.id()).orElseThrow();
+        assertEquals(CommentTicket.Status.FAILED, resolved.status());
+        verify(commentService, never()).addComments(anyList());
+    }
+}
@@ -0,0 +1,141 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.model.Comment;
+import com.athar.postmanager.model.Post;
+import com.athar.postmanager.repository.CommentRepository;
+import com.athar.postmanager.repository.PostRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class ExportServiceTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private ExportService exportService;
+
+    private final LocalDateTime at = LocalDateTime.of(2025, 1, 31, 10, 0);
+
+    @BeforeEach
+    void setup() {
+        ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new ExportService(new JdbcTemplate(dataSource), mapper);
+    }
+
+    @Test
+    void testExportPosts_WritesOneLinePerRowIncludingSoftDeleted() {
+        LocalDateTime from = LocalDateTime.now().minusMinutes(1);
+        Post kept = postRepository.saveAndFlush(new Post("A", "a"));
+        Post deleted = postRepository.saveAndFlush(new Post("B", "b"));
+        postRepository.softDelete(deleted.getId(), LocalDateTime.now());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportPosts(from, null, ExportService.PostTimestamp.CREATED_AT, false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":" + kept.getId() + ",\"title\":\"A\""));
+        assertTrue(lines[1].startsWith("{\"id\":" + deleted.getId() + ","));
+        assertTrue(lines[1].contains("\"deleted\":true"));
+    }
+
+    @Test
+    void testExportPosts_ByUpdatedAtFiltersOnTheUpdateTime() {
+        LocalDateTime from = LocalDateTime.now().minusMinutes(1);
+        postRepository.saveAndFlush(new Post("A", "a"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(1, exportService.exportPosts(from, null, ExportService.PostTimestamp.UPDATED_AT, false, out));
+        assertEquals(0, exportService.exportPosts(LocalDateTime.now().plusMinutes(1), null,
+                ExportService.PostTimestamp.UPDATED_AT, false, new ByteArrayOutputStream()));
+    }
+
+    @Test
+    void testExportComments_FiltersByCreatedAtRangeInIdOrder() {
+        Post post = postRepository.save(new Post(null, "Export", "Comments"));
+        for (int i = 0; i < 4; i++) {
+            Comment comment = new Comment(null, post, "U" + i, "Comment " + i);
+            comment.setCreatedAt(at.plusDays(i));
+            commentRepository.save(comment);
+        }
+        commentRepository.flush();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = exportService.exportComments(at.plusDays(1), at.plusDays(3), false, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertTrue(lines[0].contains("\"postId\":" + post.getId() + ",\"author\":\"U1\""));
+        assertTrue(lines[1].contains("\"author\":\"U2\""));
+    }
+
+    @Test
+    void testExportComments_Gzip() throws IOException {
+        Post post = postRepository.save(new Post(null, "Export", "Gzip"));
+        Comment comment = new Comment(null, post, "Athar", "Nice");
+        comment.setCreatedAt(at);
+        comment = commentRepository.saveAndFlush(comment);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportComments(at, at.plusSeconds(1), true, out);
+
+        String text = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertEquals("{\"id\":" + comment.getId() + ",\"postId\":" + post.getId()
+                + ",\"author\":\"Athar\",\"content\":\"Nice\",\"createdAt\":\"2025-01-31T10:00:00\"}\n", text);
+    }
+
+    @Test
+    void testExport_ClientDisconnectAborts() {
+        Post post = postRepository.save(new Post(null, "Export", "Broken"));
+        for (int i = 0; i < 3; i++) {
+            Comment comment = new Comment(null, post, "a", "Comment " + i);
+            comment.setCreatedAt(at);
+            commentRepository.save(comment);
+        }
+        commentRepository.flush();
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThrows(UncheckedIOException.class, () -> exportService.exportComments(null, null, false, broken));
+    }
+
+    @Test
+    void testInvalidRangeThrows() {
+        assertThrows(IllegalArgumentException.class,
+                () -> exportService.exportComments(at, at.minusDays(1), false, new ByteArrayOutputStream()));
+    }
+}
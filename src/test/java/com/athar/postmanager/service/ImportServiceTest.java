@@ -0,0 +1,248 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.dto.CommentBatchResult;
+import com.athar.postmanager.dto.ImportReport;
+import com.athar.postmanager.model.Comment;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class ImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private CommentService commentService;
+
+    @Mock
+    private PostSearchIndex searchIndex;
+
+    @Mock
+    private TopLikedLeaderboard leaderboard;
+
+    @Mock
+    private PostCache postCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ImportService importService;
+
+    private final AtomicLong nextId = new AtomicLong(100);
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        importService = new ImportService(jdbcTemplate, transactionManager, commentService,
+                searchIndex, leaderboard, postCache, new ObjectMapper().registerModule(new JavaTimeModule()),
+                2, 1, 100);
+        // Generated-id inserts hand out ids 100, 101, ... like the database would
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class))).thenAnswer(invocation -> {
+                    BatchPreparedStatementSetter rows = invocation.getArgument(1);
+                    KeyHolder keys = invocation.getArgument(2);
+                    for (int i = 0; i < rows.getBatchSize(); i++) {
+                        keys.getKeyList().add(Map.of("id", nextId.getAndIncrement()));
+                    }
+                    return new int[rows.getBatchSize()];
+                });
+    }
+
+    private static InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void verifyGeneratedInserts(int times) {
+        verify(jdbcTemplate, times(times)).batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testImportPosts_BatchesValidRowsAndReportsTheRest() {
+        String ndjson = """
+                {"title":"A","content":"a","likes":3,"createdAt":"2025-01-01T10:00:00"}
+                {"title":" ","content":"no title"}
+                {"title":"Gone","content":"x","deleted":true}
+                {"id":42,"title":"B","content":"b","unknownField":1}
+                """;
+
+        ImportReport report = importService.importPosts(input(ndjson), ImportService.Format.NDJSON, "posts-1");
+
+        assertTrue(report.completed());
+        assertEquals(4, report.rowsRead());
+        assertEquals(2, report.imported());
+        assertEquals(1, report.failed());
+        assertEquals(1, report.skipped());
+        assertTrue(report.errors().get(0).startsWith("row 2: "));
+
+        ArgumentCaptor<BatchPreparedStatementSetter> generated = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class), generated.capture(), any(KeyHolder.class));
+        assertEquals(1, generated.getValue().getBatchSize());
+        ArgumentCaptor<List<Object[]>> withId = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(ImportService.INSERT_POST_WITH_ID), withId.capture());
+        assertEquals(42L, withId.getValue().get(0)[0]);
+
+        // Both chunks record their checkpoint, the imported ids are evicted and the run cleans up
+        verify(jdbcTemplate).update(ImportService.INSERT_CHECKPOINT, "posts-1", 1L, 2L);
+        verify(jdbcTemplate).update(ImportService.INSERT_CHECKPOINT, "posts-1", 3L, 4L);
+        verify(postCache).invalidateAll(List.of(100L));
+        verify(postCache).invalidateAll(List.of(42L));
+        verify(jdbcTemplate).update(ImportService.DELETE_CHECKPOINTS, "posts-1");
+        verify(searchIndex).submitReindex();
+        verify(leaderboard).reseed();
+    }
+
+    @Test
+    void testImportPosts_CheckpointCommitsWithTheChunk() {
+        String ndjson = """
+                {"title":"A","content":"a"}
+                {"title":"B","content":"b"}
+                """;
+
+        importService.importPosts(input(ndjson), ImportService.Format.NDJSON, "atomic");
+
+        // One transaction holds the rows and their checkpoint; a crash before commit loses both
+        InOrder order = inOrder(transactionManager, jdbcTemplate);
+        order.verify(transactionManager).getTransaction(any());
+        order.verify(jdbcTemplate).batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class));
+        order.verify(jdbcTemplate).update(ImportService.INSERT_CHECKPOINT, "atomic", 1L, 2L);
+        order.verify(transactionManager).commit(any());
+        verify(postCache).invalidateAll(List.of(100L, 101L));
+    }
+
+    @Test
+    void testImportComments_ParsesCsvAndMapsFailuresToRowNumbers() {
+        String csv = """
+                postId,author,content
+                1,Alice,First
+                2,Bob,Second
+                1,Carol,Third
+                """;
+        when(commentService.addComments(anyList(), any(), any())).thenAnswer(invocation -> {
+            List<Comment> batch = invocation.getArgument(0);
+            Runnable inBatchTransaction = invocation.getArgument(1);
+            inBatchTransaction.run();
+            if (batch.get(0).getAuthor().equals("Alice")) {
+                return CommentBatchResult.of(List.of(
+                        CommentBatchResult.Item.created(0, 10L),
+                        CommentBatchResult.Item.failed(1, "Post not found")));
+            }
+            return CommentBatchResult.of(List.of(CommentBatchResult.Item.created(0, 11L)));
+        });
+
+        ImportReport report = importService.importComments(input(csv), ImportService.Format.CSV, "comments-csv");
+
+        assertTrue(report.completed());
+        assertEquals(2, report.imported());
+        assertEquals(1, report.failed());
+        assertEquals(List.of("row 2: Post not found"), report.errors());
+        verify(commentService, times(2)).addComments(anyList(), any(), any());
+        verify(jdbcTemplate).update(ImportService.INSERT_CHECKPOINT, "comments-csv", 1L, 2L);
+        verify(jdbcTemplate).update(ImportService.INSERT_CHECKPOINT, "comments-csv", 3L, 3L);
+        verifyNoInteractions(searchIndex);
+    }
+
+    @Test
+    void testImportComments_RowByRowFallbackCheckpointsEachRowAndTheChunk() {
+        String ndjson = """
+                {"postId":1,"author":"Alice","content":"First"}
+                {"postId":2,"author":"Bob","content":"Second"}
+                """;
+        when(commentService.addComments(anyList(), any(), any())).thenAnswer(invocation -> {
+            // The batch rolled back; only the first row went in on its own
+            IntConsumer inItemTransaction = invocation.getArgument(2);
+            inItemTransaction.accept(0);
+            return CommentBatchResult.of(List.of(
+                    CommentBatchResult.Item.created(0, 10L),
+                    CommentBatchResult.Item.failed(1, "rejected")));
+        });
+
+        ImportReport report = importService.importComments(input(ndjson), ImportService.Format.NDJSON, "fallback");
+
+        assertEquals(1, report.imported());
+        verify(jdbcTemplate).update(ImportService.INSERT_CHECKPOINT, "fallback", 1L, 1L);
+        verify(jdbcTemplate).update(ImportService.INSERT_CHECKPOINT, "fallback", 1L, 2L);
+    }
+
+    @Test
+    void testImportPosts_ResumesAfterCheckpointedRows() throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong(1)).thenReturn(1L);
+            when(rs.getLong(2)).thenReturn(2L);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(eq(ImportService.SELECT_CHECKPOINTS), any(RowCallbackHandler.class), eq("resume"));
+        String ndjson = """
+                {"title":"A","content":"a"}
+                {"title":"B","content":"b"}
+                {"title":"C","content":"c"}
+                """;
+
+        ImportReport report = importService.importPosts(input(ndjson), ImportService.Format.NDJSON, "resume");
+
+        assertTrue(report.completed());
+        assertEquals(2, report.resumedAfter());
+        assertEquals(1, report.imported());
+        verifyGeneratedInserts(1);
+        verify(jdbcTemplate).update(ImportService.INSERT_CHECKPOINT, "resume", 3L, 3L);
+    }
+
+    @Test
+    void testImportPosts_DatabaseFailureStopsAndKeepsCheckpoint() {
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), any(BatchPreparedStatementSetter.class),
+                any(KeyHolder.class)))
+                .thenReturn(new int[]{1, 1})
+                .thenThrow(new CannotGetJdbcConnectionException("down"));
+        String ndjson = """
+                {"title":"A","content":"a"}
+                {"title":"B","content":"b"}
+                {"title":"C","content":"c"}
+                {"title":"D","content":"d"}
+                """;
+
+        ImportReport report = importService.importPosts(input(ndjson), ImportService.Format.NDJSON, "broken");
+
+        assertFalse(report.completed());
+        assertEquals(2, report.imported());
+        verify(jdbcTemplate).update(ImportService.INSERT_CHECKPOINT, "broken", 1L, 2L);
+        verify(jdbcTemplate, never()).update(ImportService.INSERT_CHECKPOINT, "broken", 3L, 4L);
+        verify(jdbcTemplate, never()).update(ImportService.DELETE_CHECKPOINTS, "broken");
+    }
+
+    @Test
+    void testImportPosts_RejectsInvalidJobName() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importService.importPosts(input(""), ImportService.Format.NDJSON, "../etc"));
+        assertThrows(IllegalArgumentException.class, () -> ImportService.Format.parse("xml"));
+    }
+}
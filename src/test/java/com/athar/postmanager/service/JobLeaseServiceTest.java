@@ -0,0 +1,56 @@
+package com.athar.postmanager.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public class JobLeaseServiceTest {
+
+    private static final Duration TTL = Duration.ofMinutes(5);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testOnlyOneNodeHoldsALeaseUntilItIsReleased() {
+        JobLeaseService nodeA = new JobLeaseService(jdbcTemplate, "node-a");
+        JobLeaseService nodeB = new JobLeaseService(jdbcTemplate, "node-b");
+
+        assertTrue(nodeA.tryAcquire("job", TTL));
+        assertFalse(nodeB.tryAcquire("job", TTL));
+        assertTrue(nodeA.tryAcquire("job", TTL)); // re-entrant for the holder
+        assertTrue(nodeA.renew("job", TTL));
+        assertFalse(nodeB.renew("job", TTL));
+        assertTrue(nodeB.tryAcquire("other-job", TTL));
+
+        nodeA.release("job");
+        assertTrue(nodeB.tryAcquire("job", TTL));
+        assertFalse(nodeA.renew("job", TTL));
+    }
+
+    @Test
+    void testExpiredLeaseCanBeTakenOver() {
+        JobLeaseService nodeA = new JobLeaseService(jdbcTemplate, "node-a");
+        JobLeaseService nodeB = new JobLeaseService(jdbcTemplate, "node-b");
+        assertTrue(nodeA.tryAcquire("job", TTL));
+
+        // node-a stopped renewing, e.g. it crashed mid-pass
+        jdbcTemplate.update("UPDATE job_leases SET expires_at = ? WHERE name = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusSeconds(1)), "job");
+
+        assertTrue(nodeB.tryAcquire("job", TTL));
+        assertEquals("node-b",
+                jdbcTemplate.queryForObject("SELECT owner FROM job_leases WHERE name = ?", String.class, "job"));
+        assertFalse(nodeA.renew("job", TTL));
+    }
+}
@@ -0,0 +1,90 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.dto.AuthenticatedUser;
+import com.athar.postmanager.model.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JwtServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[32]);
+    private static final String OTHER_SECRET = Base64.getEncoder().encodeToString("another-secret-of-at-least-32-bytes!".getBytes());
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+    private final User user = new User(7L, "athar", "hash", Set.of("USER", "ADMIN"));
+
+    private JwtService service(String secret, String previous) {
+        return new JwtService(secret, previous, Duration.ofMinutes(15), Duration.ofMinutes(1), 100, clock);
+    }
+
+    @Test
+    void testIssueAndVerify_RoundTrip() {
+        JwtService jwt = service(SECRET, "");
+
+        Optional<AuthenticatedUser> result = jwt.verify(jwt.issueAccessToken(user));
+
+        assertTrue(result.isPresent());
+        assertEquals(7L, result.get().id());
+        assertEquals("athar", result.get().username());
+        assertEquals(Set.of("USER", "ADMIN"), result.get().roles());
+    }
+
+    @Test
+    void testVerify_RejectsTamperedAndForeignTokens() {
+        JwtService jwt = service(SECRET, "");
+        String token = jwt.issueAccessToken(user);
+
+        assertTrue(jwt.verify(token.substring(0, token.length() - 2) + "xx").isEmpty());
+        assertTrue(jwt.verify(service(OTHER_SECRET, "").issueAccessToken(user)).isEmpty());
+        assertTrue(jwt.verify("not-a-token").isEmpty());
+        assertTrue(jwt.verify(null).isEmpty());
+    }
+
+    @Test
+    void testVerify_ExpiredTokenRejectedEvenWhenCached() {
+        JwtService jwt = service(SECRET, "");
+        String token = jwt.issueAccessToken(user);
+        assertTrue(jwt.verify(token).isPresent());
+
+        clock.advance(Duration.ofMinutes(16));
+
+        assertTrue(jwt.verify(token).isEmpty());
+    }
+
+    @Test
+    void testVerify_PreviousSecretStillAcceptedAfterRotation() {
+        String oldToken = service(SECRET, "").issueAccessToken(user);
+
+        JwtService rotated = service(OTHER_SECRET, SECRET);
+
+        assertTrue(rotated.verify(oldToken).isPresent());
+        assertTrue(rotated.verify(rotated.issueAccessToken(user)).isPresent());
+    }
+
+    @Test
+    void testShortSecretRejected() {
+        String shortSecret = Base64.getEncoder().encodeToString(new byte[16]);
+        assertThrows(IllegalArgumentException.class, () -> service(shortSecret, ""));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) { this.now = now; }
+
+        void advance(Duration duration) { now = now.plus(duration); }
+
+        @Override public ZoneOffset getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(java.time.ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
@@ -0,0 +1,138 @@
+package com.athar.postmanager.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class LikeCounterServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private PostCache postCache;
+
+    private LikeCounterService likeCounter;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        likeCounter = new LikeCounterService(jdbcTemplate, transactionManager, postCache, 500);
+    }
+
+    @Test
+    void testEffectiveLikes_CombinesPersistedAndPending() {
+        likeCounter.add(1L, 1);
+        likeCounter.add(1L, 1);
+        likeCounter.add(1L, -1);
+
+        assertEquals(1, likeCounter.pendingDelta(1L));
+        assertEquals(6, likeCounter.effectiveLikes(1L, 5));
+        assertEquals(1, likeCounter.effectiveLikes(1L, null));
+        assertEquals(0, likeCounter.effectiveLikes(2L, 0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_WritesOneBatchAndClearsPending() {
+        likeCounter.add(1L, 3);
+        likeCounter.add(2L, -1);
+
+        int flushed = likeCounter.flush();
+
+        assertEquals(2, flushed);
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(1)).batchUpdate(eq(LikeCounterService.FLUSH_SQL), batch.capture(),
+                eq(500), any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(2, batch.getValue().size());
+        assertEquals(0, likeCounter.pendingDelta(1L));
+        assertEquals(0, likeCounter.pendingDelta(2L));
+        verify(postCache).addLikes(eq(Map.of(1L, 3L, 2L, -1L)), any());
+        verify(postCache, never()).invalidateAll(any());
+    }
+
+    @Test
+    void testFlush_NothingPending_SkipsDatabase() {
+        assertEquals(0, likeCounter.flush());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFlush_FailureKeepsDeltasForRetry() {
+        likeCounter.add(1L, 4);
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new RuntimeException("DB down"));
+
+        assertEquals(0, likeCounter.flush());
+        assertEquals(4, likeCounter.pendingDelta(1L));
+        verify(postCache, never()).addLikes(any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testConcurrentLikes_AreNotLostAcrossFlushes() throws Exception {
+        List<Long> flushedTotals = new ArrayList<>();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(inv -> {
+                    List<Object[]> rows = inv.getArgument(1);
+                    synchronized (flushedTotals) {
+                        rows.forEach(r -> flushedTotals.add((Long) r[0]));
+                    }
+                    return new int[0][];
+                });
+
+        int threads = 8;
+        int likesPerThread = 5_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < likesPerThread; i++) {
+                    likeCounter.add(42L, 1);
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        for (int i = 0; i < 20; i++) {
+            likeCounter.flush();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        likeCounter.flushOnShutdown();
+
+        long total = flushedTotals.stream().mapToLong(Long::longValue).sum();
+        assertEquals((long) threads * likesPerThread, total);
+    }
+
+    @Test
+    void testDiscard_DropsPendingDelta() {
+        likeCounter.add(7L, 2);
+        likeCounter.discard(7L);
+
+        assertEquals(0, likeCounter.pendingDelta(7L));
+        assertEquals(0, likeCounter.flush());
+    }
+}
@@ -0,0 +1,101 @@
+package com.athar.postmanager.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class OrphanCommentReaperTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private JobLeaseService leases;
+
+    private SimpleMeterRegistry meterRegistry;
+    private OrphanCommentReaper reaper;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        reaper = new OrphanCommentReaper(jdbcTemplate, leases, meterRegistry, 100, 1_000_000, Duration.ofMinutes(5));
+        when(leases.tryAcquire(eq(OrphanCommentReaper.LEASE_NAME), any())).thenReturn(true);
+        when(leases.renew(eq(OrphanCommentReaper.LEASE_NAME), any())).thenReturn(true);
+    }
+
+    @Test
+    void testReap_DeletesInIdWindowsUpToMaxIdAndReportsMetrics() {
+        when(jdbcTemplate.queryForObject(OrphanCommentReaper.MAX_ID_SQL, Long.class)).thenReturn(250L);
+        when(jdbcTemplate.update(eq(OrphanCommentReaper.DELETE_SQL), anyLong(), anyLong(), anyInt()))
+                .thenReturn(7, 0, 3);
+
+        assertEquals(10, reaper.reap());
+
+        InOrder inOrder = inOrder(leases, jdbcTemplate);
+        inOrder.verify(leases).tryAcquire(eq(OrphanCommentReaper.LEASE_NAME), any());
+        inOrder.verify(jdbcTemplate).update(OrphanCommentReaper.DELETE_SQL, 0L, 100L, 100);
+        inOrder.verify(jdbcTemplate).update(OrphanCommentReaper.DELETE_SQL, 100L, 200L, 100);
+        inOrder.verify(jdbcTemplate).update(OrphanCommentReaper.DELETE_SQL, 200L, 250L, 100);
+        inOrder.verify(leases).release(OrphanCommentReaper.LEASE_NAME);
+
+        assertEquals(10.0, meterRegistry.get("comments.orphans.deleted").counter().count());
+        assertEquals(250.0, meterRegistry.get("comments.orphans.reaper.position").gauge().value());
+        assertEquals(1.0, meterRegistry.get("comments.orphans.reaper.progress").gauge().value());
+    }
+
+    @Test
+    void testReap_SkipsWhenAnotherNodeHoldsTheLease() {
+        when(leases.tryAcquire(eq(OrphanCommentReaper.LEASE_NAME), any())).thenReturn(false);
+
+        assertEquals(-1, reaper.reap());
+
+        verifyNoInteractions(jdbcTemplate);
+        verify(leases, never()).release(any());
+    }
+
+    @Test
+    void testReap_StopsWhenTheLeaseIsLost() {
+        // A tiny TTL makes every window renew the lease
+        reaper = new OrphanCommentReaper(jdbcTemplate, leases, meterRegistry, 100, 1_000_000, Duration.ofNanos(1));
+        when(jdbcTemplate.queryForObject(OrphanCommentReaper.MAX_ID_SQL, Long.class)).thenReturn(1_000L);
+        when(jdbcTemplate.update(eq(OrphanCommentReaper.DELETE_SQL), anyLong(), anyLong(), anyInt())).thenReturn(5);
+        when(leases.renew(eq(OrphanCommentReaper.LEASE_NAME), any())).thenReturn(true, false);
+
+        assertEquals(10, reaper.reap());
+
+        verify(jdbcTemplate, times(2)).update(eq(OrphanCommentReaper.DELETE_SQL), anyLong(), anyLong(), anyInt());
+        verify(leases).release(OrphanCommentReaper.LEASE_NAME);
+    }
+
+    @Test
+    void testReap_ReleasesTheLeaseWhenADeleteFails() {
+        when(jdbcTemplate.queryForObject(OrphanCommentReaper.MAX_ID_SQL, Long.class)).thenReturn(50L);
+        when(jdbcTemplate.update(eq(OrphanCommentReaper.DELETE_SQL), anyLong(), anyLong(), anyInt()))
+                .thenThrow(new RuntimeException("lock wait timeout"));
+
+        assertThrows(RuntimeException.class, () -> reaper.reap());
+
+        verify(leases).release(OrphanCommentReaper.LEASE_NAME);
+    }
+
+    @Test
+    void testPauseNanos_KeepsDeletesWithinTheBudget() {
+        // 500 rows at 1000 rows/s may take 500ms; after 200ms the reaper waits the other 300ms
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(300),
+                OrphanCommentReaper.pauseNanos(500, 1000, TimeUnit.MILLISECONDS.toNanos(200)));
+        assertTrue(OrphanCommentReaper.pauseNanos(500, 1000, TimeUnit.SECONDS.toNanos(1)) < 0);
+        assertEquals(0, OrphanCommentReaper.pauseNanos(0, 1000, 0));
+    }
+}
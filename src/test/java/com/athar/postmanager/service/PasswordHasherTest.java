@@ -0,0 +1,48 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PasswordHasherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() {
+        if (hasher != null) {
+            hasher.shutdown();
+        }
+    }
+
+    @Test
+    void testEncodeAndMatches_RecordTimers() {
+        hasher = new PasswordHasher(registry, 4, 0.5, 8, Duration.ofSeconds(5));
+
+        String encoded = hasher.encode("secret");
+
+        assertTrue(hasher.matches("secret", encoded));
+        assertFalse(hasher.matches("other", encoded));
+        assertEquals(1, registry.get("auth.password.hash").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("auth.password.hash").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    void testTimeout_ShedsRequest() {
+        hasher = new PasswordHasher(registry, 16, 0.01, 1, Duration.ofMillis(1));
+
+        assertThrows(ServiceUnavailableException.class, () -> hasher.encode("secret"));
+    }
+
+    @Test
+    void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new PasswordHasher(registry, 10, 0, 8, Duration.ofSeconds(1)));
+    }
+}
@@ -0,0 +1,190 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.model.Post;
+import com.athar.postmanager.repository.PostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PostCacheTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PostCache postCache;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        postCache = new PostCache(postRepository, meterRegistry, 100, Duration.ofMinutes(1), Duration.ofSeconds(10));
+    }
+
+    @Test
+    void testGet_LoadsOnceThenHits() {
+        Post post = new Post(1L, "T", "C");
+        when(postRepository.findWithCommentsById(1L)).thenReturn(Optional.of(post));
+
+        assertSame(post, postCache.get(1L).orElseThrow());
+        assertSame(post, postCache.get(1L).orElseThrow());
+
+        verify(postRepository, times(1)).findWithCommentsById(1L);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "posts").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testGet_MissingAndDeletedPostsAreNegativeCached() {
+        // Soft-deleted rows come back empty: the entity's SQL restriction filters them out
+        when(postRepository.findWithCommentsById(2L)).thenReturn(Optional.empty());
+        when(postRepository.findWithCommentsById(3L)).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(postCache.get(2L).isEmpty());
+            assertTrue(postCache.get(3L).isEmpty());
+        }
+
+        verify(postRepository, times(1)).findWithCommentsById(2L);
+        verify(postRepository, times(1)).findWithCommentsById(3L);
+    }
+
+    @Test
+    void testInvalidate_ForcesReload() {
+        when(postRepository.findWithCommentsById(anyLong())).thenReturn(Optional.of(new Post(4L, "T", "C")));
+
+        postCache.get(4L);
+        postCache.get(5L);
+        postCache.invalidate(4L);
+        postCache.invalidateAll(List.of(5L));
+        postCache.get(4L);
+        postCache.get(5L);
+
+        verify(postRepository, times(2)).findWithCommentsById(4L);
+        verify(postRepository, times(2)).findWithCommentsById(5L);
+    }
+
+    @Test
+    void testAddLikes_AdjustsUnchangedEntriesAndEvictsOnesReloadedMeanwhile() {
+        Post liked = new Post(1L, "Liked", "C");
+        liked.setLikes(5);
+        when(postRepository.findWithCommentsById(1L)).thenReturn(Optional.of(liked));
+        when(postRepository.findWithCommentsById(2L)).thenAnswer(inv -> Optional.of(new Post(2L, "Reloaded", "C")));
+        postCache.get(1L);
+        postCache.get(2L);
+
+        Map<Long, Optional<Post>> before = postCache.snapshot(List.of(1L, 2L, 3L));
+        postCache.invalidate(2L);
+        postCache.get(2L); // loaded while the flush was writing
+        postCache.addLikes(Map.of(1L, 2L, 2L, 1L, 3L, 1L), before);
+
+        assertEquals(7, postCache.get(1L).orElseThrow().getLikes());
+        assertEquals(5, liked.getLikes()); // the loaded instance is not mutated
+        postCache.get(2L);
+        verify(postRepository, times(1)).findWithCommentsById(1L);
+        verify(postRepository, times(3)).findWithCommentsById(2L);
+        verify(postRepository, never()).findWithCommentsById(3L);
+    }
+
+    @Test
+    void testGet_ConcurrentMissesShareOneLoad() throws Exception {
+        int readerCount = 8;
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Thread> loader = new AtomicReference<>();
+        when(postRepository.findWithCommentsById(6L)).thenAnswer(inv -> {
+            loader.set(Thread.currentThread());
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(new Post(6L, "Viral", "C"));
+        });
+
+        CountDownLatch started = new CountDownLatch(readerCount);
+        List<Optional<Post>> results = new CopyOnWriteArrayList<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < readerCount; i++) {
+            Thread reader = new Thread(() -> {
+                started.countDown();
+                results.add(postCache.get(6L));
+            });
+            readers.add(reader);
+            reader.start();
+        }
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Only release the load once every other reader is parked inside get(), waiting on it
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!readers.stream().filter(t -> t != loader.get()).allMatch(PostCacheTest::isParked)) {
+            assertTrue(System.nanoTime() < deadline, "readers did not block on the in-flight load");
+            Thread.sleep(1);
+        }
+        release.countDown();
+        for (Thread reader : readers) {
+            reader.join(5000);
+        }
+
+        assertEquals(readerCount, results.size());
+        for (Optional<Post> result : results) {
+            assertEquals("Viral", result.orElseThrow().getTitle());
+        }
+        verify(postRepository, times(1)).findWithCommentsById(6L);
+    }
+
+    private static boolean isParked(Thread thread) {
+        Thread.State state = thread.getState();
+        return state == Thread.State.BLOCKED || state == Thread.State.WAITING || state == Thread.State.TIMED_WAITING;
+    }
+
+    @Test
+    void testPreload_LoadsMissingPostsInBulkAndCachesAbsentOnesAsEmpty() {
+        when(postRepository.findWithCommentsById(1L)).thenReturn(Optional.of(new Post(1L, "Cached", "C")));
+        postCache.get(1L);
+        when(postRepository.findWithCommentsByIdIn(anyCollection())).thenReturn(List.of(new Post(2L, "Hot", "C")));
+
+        postCache.preload(List.of(1L, 2L, 3L));
+
+        assertEquals("Hot", postCache.get(2L).orElseThrow().getTitle());
+        assertTrue(postCache.get(3L).isEmpty());
+        verify(postRepository).findWithCommentsByIdIn(
+                ArgumentMatchers.<Collection<Long>>argThat(ids -> ids.size() == 2 && !ids.contains(1L)));
+        verify(postRepository, never()).findWithCommentsById(2L);
+        verify(postRepository, never()).findWithCommentsById(3L);
+    }
+
+    @Test
+    void testRefresh_ReplacesEntriesWithoutEvictingThem() throws Exception {
+        when(postRepository.findWithCommentsById(7L))
+                .thenReturn(Optional.of(new Post(7L, "Old", "C")))
+                .thenReturn(Optional.of(new Post(7L, "New", "C")));
+        postCache.get(7L);
+
+        postCache.refresh(List.of(7L)).join();
+
+        // The loaded value is installed just after the future completes
+        String title = postCache.get(7L).orElseThrow().getTitle();
+        for (int i = 0; i < 100 && !title.equals("New"); i++) {
+            Thread.sleep(10);
+            title = postCache.get(7L).orElseThrow().getTitle();
+        }
+        assertEquals("New", title);
+        verify(postRepository, times(2)).findWithCommentsById(7L);
+    }
+}
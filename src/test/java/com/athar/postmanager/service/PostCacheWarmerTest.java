@@ -0,0 +1,70 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.repository.CommentRepository;
+import com.athar.postmanager.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PostCacheWarmerTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private PostCache postCache;
+
+    private PostCacheWarmer warmer;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        warmer = new PostCacheWarmer(postRepository, commentRepository, postCache, 3, 5, 60_000, Duration.ofMinutes(10));
+        when(postRepository.findTopLikedIds(PageRequest.of(0, 3))).thenReturn(List.of(9L, 4L, 2L));
+        when(commentRepository.findRecentlyCommentedPostIds(PageRequest.of(0, 5))).thenReturn(List.of(7L, 7L, 4L, 1L, 7L));
+    }
+
+    @Test
+    void testWarmUp_PreloadsTopLikedAndRecentlyCommentedPostsOnce() {
+        warmer.warmUp();
+
+        verify(postCache).preload(Set.of(9L, 4L, 2L, 7L, 1L));
+    }
+
+    @Test
+    void testRefresh_ReloadsTheHotSet() {
+        doReturn(CompletableFuture.completedFuture(null)).when(postCache).refresh(anyCollection());
+
+        warmer.refresh();
+
+        verify(postCache).refresh(Set.of(9L, 4L, 2L, 7L, 1L));
+        verify(postCache, never()).preload(any());
+    }
+
+    @Test
+    void testWarmUp_DatabaseFailureLeavesTheCacheCold() {
+        when(postRepository.findTopLikedIds(any())).thenThrow(new RuntimeException("connection refused"));
+
+        assertDoesNotThrow(() -> warmer.warmUp());
+        verifyNoInteractions(postCache);
+    }
+
+    @Test
+    void testIntervalMustBeShorterThanTheTtl() {
+        assertThrows(IllegalArgumentException.class, () -> new PostCacheWarmer(postRepository, commentRepository,
+                postCache, 3, 5, 600_000, Duration.ofMinutes(10)));
+    }
+}
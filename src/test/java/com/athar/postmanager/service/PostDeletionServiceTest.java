@@ -0,0 +1,114 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.dto.BulkDeleteJob;
+import com.athar.postmanager.repository.CommentRepository;
+import com.athar.postmanager.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class PostDeletionServiceTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private LikeCounterService likeCounter;
+
+    @Mock
+    private TopLikedLeaderboard leaderboard;
+
+    @Mock
+    private PostCache postCache;
+
+    @Mock
+    private PostSearchIndex searchIndex;
+
+    private PostDeletionService postDeletion;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        postDeletion = new PostDeletionService(postRepository, commentRepository, likeCounter, leaderboard,
+                postCache, searchIndex, mock(PlatformTransactionManager.class), 1000);
+    }
+
+    @Test
+    void testDeleteWithComments_LargePostIsDeletedInChunks() {
+        when(commentRepository.deleteChunkByPostId(1L, 1000)).thenReturn(1000, 1000, 1000, 17, 0);
+        when(postRepository.deleteByIdInBulk(1L)).thenReturn(1);
+
+        assertTrue(postDeletion.deleteWithComments(1L));
+
+        verify(commentRepository, times(5)).deleteChunkByPostId(1L, 1000);
+        verify(commentRepository, never()).findByPost(any());
+        verify(likeCounter).discard(1L);
+        verify(leaderboard).remove(1L);
+        verify(postCache).invalidate(1L);
+        verify(searchIndex).remove(1L);
+    }
+
+    @Test
+    void testDeleteWithComments_InvalidIdThrows() {
+        assertThrows(IllegalArgumentException.class, () -> postDeletion.deleteWithComments(0L));
+        verifyNoInteractions(commentRepository, postRepository);
+    }
+
+    @Test
+    void testDeleteWithComments_CommentDeletionFailureKeepsThePost() {
+        when(commentRepository.deleteChunkByPostId(5L, 1000)).thenThrow(new RuntimeException("DB failure"));
+
+        assertThrows(RuntimeException.class, () -> postDeletion.deleteWithComments(5L));
+
+        verify(postRepository, never()).deleteByIdInBulk(any());
+        verify(likeCounter, never()).discard(any());
+    }
+
+    @Test
+    void testRunBulkDelete_CountsEachOutcome() {
+        when(postRepository.deleteByIdInBulk(1L)).thenReturn(1);
+        when(postRepository.deleteByIdInBulk(2L)).thenReturn(0);
+        when(commentRepository.deleteChunkByPostId(3L, 1000)).thenThrow(new RuntimeException("lock timeout"));
+
+        BulkDeleteJob job = new BulkDeleteJob("job-1", 3);
+        postDeletion.runBulkDelete(job, Arrays.asList(1L, 2L, 3L));
+
+        assertEquals(1, job.getDeleted());
+        assertEquals(1, job.getNotFound());
+        assertEquals(1, job.getFailed());
+        assertEquals(BulkDeleteJob.Status.FAILED, job.getStatus());
+    }
+
+    @Test
+    void testSubmitBulkDelete_RunsAsyncAndIsPollable() throws Exception {
+        when(postRepository.deleteByIdInBulk(anyLong())).thenReturn(1);
+
+        BulkDeleteJob job = postDeletion.submitBulkDelete(List.of(4L, 5L, 4L));
+
+        assertEquals(2, job.getRequested()); // duplicates collapsed
+        for (int i = 0; i < 100 && !job.isFinished(); i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(BulkDeleteJob.Status.COMPLETED, job.getStatus());
+        assertEquals(2, job.getDeleted());
+        assertSame(job, postDeletion.getBulkDeleteJob(job.getId()).orElseThrow());
+    }
+
+    @Test
+    void testSubmitBulkDelete_InvalidInputThrows() {
+        assertThrows(IllegalArgumentException.class, () -> postDeletion.submitBulkDelete(Collections.emptyList()));
+        assertThrows(IllegalArgumentException.class, () -> postDeletion.submitBulkDelete(Arrays.asList(1L, -2L)));
+    }
+}
@@ -0,0 +1,119 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.model.Post;
+import com.athar.postmanager.repository.PostRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class PostSearchIndexTest {
+
+    @TempDir
+    Path indexDir;
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private PostSearchIndex index;
+
+    @BeforeEach
+    void setup() throws Exception {
+        index = new PostSearchIndex(postRepository, indexDir.toString(), 2);
+        index.open();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.close();
+    }
+
+    @Test
+    void testSearch_RanksTitleMatchesFirst() {
+        index.index(new Post(1L, "Cooking pasta", "A post about spring vegetables"));
+        index.index(new Post(2L, "Spring Boot tips", "Configuration and starters"));
+        index.index(new Post(3L, "Gardening", "Nothing relevant here"));
+        index.refresh();
+
+        PostSearchIndex.Hits hits = index.search("spring", 0, 10);
+
+        assertEquals(List.of(2L, 1L), hits.ids());
+        assertEquals(2, hits.totalHits());
+    }
+
+    @Test
+    void testSearch_OffsetAndAllTermsRequired() {
+        index.index(new Post(1L, "Spring boot", "x"));
+        index.index(new Post(2L, "Spring", "boot"));
+        index.index(new Post(3L, "Spring", "only"));
+        index.refresh();
+
+        assertEquals(2, index.search("spring boot", 0, 10).totalHits());
+        assertEquals(1, index.search("spring boot", 1, 10).ids().size());
+    }
+
+    @Test
+    void testUpdateAndRemove() {
+        index.index(new Post(1L, "Old title", "content"));
+        index.refresh();
+        index.index(new Post(1L, "New title", "content"));
+        index.refresh();
+
+        assertTrue(index.search("old", 0, 10).ids().isEmpty());
+        assertEquals(List.of(1L), index.search("new", 0, 10).ids());
+
+        index.remove(1L);
+        index.refresh();
+        assertEquals(0, index.search("new", 0, 10).totalHits());
+    }
+
+    @Test
+    void testReindex_StreamsInBatchesAndDropsStaleDocuments() throws Exception {
+        index.index(new Post(9L, "Stale lucene post", "deleted behind our back"));
+        when(postRepository.findActiveAfterId(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(new Post(1L, "Lucene one", "a"), new Post(2L, "Lucene two", "b")));
+        when(postRepository.findActiveAfterId(eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(new Post(3L, "Lucene three", "c")));
+
+        index.reindex();
+
+        assertEquals(List.of(1L, 2L, 3L), index.search("lucene", 0, 10).ids().stream().sorted().toList());
+        verify(postRepository, times(2)).findActiveAfterId(any(), any(Pageable.class));
+    }
+
+    @Test
+    void testReindex_DoesNotOverwriteWritesMadeAfterThePageWasRead() throws Exception {
+        index.index(new Post(1L, "Draft", "a"));
+        index.index(new Post(2L, "Doomed", "b"));
+        when(postRepository.findActiveAfterId(eq(0L), any(Pageable.class))).thenAnswer(inv -> {
+            // The page below is read first; these writes land before the pass upserts it
+            index.index(new Post(1L, "Published", "a"));
+            index.remove(2L);
+            return List.of(new Post(1L, "Draft", "a"), new Post(2L, "Doomed", "b"));
+        });
+
+        index.reindex();
+
+        assertEquals(List.of(1L), index.search("published", 0, 10).ids());
+        assertEquals(0, index.search("draft", 0, 10).totalHits());
+        assertEquals(0, index.search("doomed", 0, 10).totalHits());
+    }
+
+    @Test
+    void testIndex_SurvivesReopen() throws Exception {
+        index.index(new Post(1L, "Persistent", "post"));
+        index.close();
+
+        index = new PostSearchIndex(postRepository, indexDir.toString(), 2);
+        index.open();
+
+        assertEquals(List.of(1L), index.search("persistent", 0, 10).ids());
+    }
+}
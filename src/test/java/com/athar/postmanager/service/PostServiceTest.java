@@ -1,19 +1,32 @@
 package com.athar.postmanager.service;
 
+import com.athar.postmanager.dto.CursorPage;
+import com.athar.postmanager.dto.PostSummary;
+import com.athar.postmanager.dto.PostVersion;
+import com.athar.postmanager.dto.SearchPage;
+import com.athar.postmanager.dto.TopPost;
+import com.athar.postmanager.exception.ConflictException;
+import com.athar.postmanager.exception.PreconditionFailedException;
 import com.athar.postmanager.model.Comment;
 import com.athar.postmanager.model.Post;
-import com.athar.postmanager.repository.CommentRepository;
 import com.athar.postmanager.repository.PostRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-
+import org.mockito.Spy;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,10 +36,18 @@ public class PostServiceTest {
     @Mock
     private PostRepository postRepository;
 
+    @Spy
+    private LikeCounterService likeCounter = new LikeCounterService(mock(JdbcTemplate.class),
+            mock(PlatformTransactionManager.class), mock(PostCache.class), 500);
+
     @Mock
-    private CommentRepository commentRepository;
+    private TopLikedLeaderboard leaderboard;
+
+    @Mock
+    private PostSearchIndex searchIndex;
+
+    private PostCache postCache;
 
-    @InjectMocks
     private PostService postService;
 
     private Post mockPost;
@@ -34,6 +55,9 @@ public class PostServiceTest {
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        postCache = new PostCache(postRepository, new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(1), Duration.ofSeconds(10));
+        postService = new PostService(postRepository, likeCounter, leaderboard, postCache, searchIndex);
         mockPost = new Post(1L, "Title", "Content");
     }
 
@@ -52,6 +76,7 @@ public class PostServiceTest {
         assertNotNull(result.getId());
         assertEquals("First", result.getTitle());
         verify(postRepository, times(1)).save(post);
+        verify(searchIndex).index(savedPost);
     }
 
     @Test
@@ -60,6 +85,19 @@ public class PostServiceTest {
         assertThrows(IllegalArgumentException.class, () -> postService.createPost(post));
     }
 
+    @Test
+    void testCreatePost_ClearsANegativelyCachedId() {
+        when(postRepository.findWithCommentsById(9L)).thenReturn(Optional.empty());
+        assertThrows(IllegalArgumentException.class, () -> postService.getPostById(9L));
+
+        Post created = new Post(9L, "New", "Post");
+        when(postRepository.save(any(Post.class))).thenReturn(created);
+        when(postRepository.findWithCommentsById(9L)).thenReturn(Optional.of(created));
+        postService.createPost(new Post("New", "Post"));
+
+        assertEquals("New", postService.getPostById(9L).getTitle());
+    }
+
     // --------------------------------------------------------------------
     // Get All Posts
     // --------------------------------------------------------------------
@@ -70,12 +108,152 @@ public class PostServiceTest {
                 new Post(2L, "C", "D")
         );
 
-        when(postRepository.findAll()).thenReturn(mockPosts);
+        when(postRepository.findAllActivePosts()).thenReturn(mockPosts);
 
         List<Post> result = postService.getAllPosts();
 
         assertEquals(2, result.size());
-        verify(postRepository, times(1)).findAll();
+        verify(postRepository, times(1)).findAllActivePosts();
+        verify(postRepository, never()).findAll();
+    }
+
+    // --------------------------------------------------------------------
+    // Keyset Pagination
+    // --------------------------------------------------------------------
+    @Test
+    void testGetPostsPage_FirstPage_ReturnsNextCursor() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 31, 10, 0);
+        PostSummary p3 = new PostSummary(3L, "C", "c", 0, 0L, now);
+        PostSummary p2 = new PostSummary(2L, "B", "b", 0, 1L, now.minusMinutes(1));
+        PostSummary p1 = new PostSummary(1L, "A", "a", 0, 2L, now.minusMinutes(2));
+
+        when(postRepository.findActivePage(any(Pageable.class))).thenReturn(Arrays.asList(p3, p2, p1));
+
+        CursorPage<PostSummary> page = postService.getPostsPage(null, 2);
+
+        assertEquals(2, page.items().size());
+        assertEquals("2025-01-31T09:59,2", page.nextCursor());
+        verify(postRepository).findActivePage(argThat(p -> p.getPageSize() == 3));
+    }
+
+    @Test
+    void testGetPostsPage_AfterCursor_LastPageHasNoCursor() {
+        LocalDateTime at = LocalDateTime.of(2025, 1, 31, 9, 59);
+        PostSummary p1 = new PostSummary(1L, "A", "a", 4, 0L, at.minusMinutes(1));
+        likeCounter.add(1L, 2);
+
+        when(postRepository.findActivePageAfter(eq(at), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(p1));
+
+        CursorPage<PostSummary> page = postService.getPostsPage("2025-01-31T09:59,2", 2);
+
+        assertEquals(1, page.items().size());
+        assertEquals(6, page.items().get(0).likes()); // persisted 4 + pending 2
+        assertNull(page.nextCursor());
+        verify(postRepository, never()).findActivePage(any());
+    }
+
+    @Test
+    void testGetPostsPage_InvalidArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> postService.getPostsPage("not-a-cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> postService.getPostsPage(null, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> postService.getPostsPage(null, PostService.MAX_PAGE_SIZE + 1));
+    }
+
+    // --------------------------------------------------------------------
+    // Search
+    // --------------------------------------------------------------------
+    @Test
+    void testSearchPosts_KeepsRankOrderAndDropsDeletedHits() {
+        LocalDateTime now = LocalDateTime.of(2025, 1, 31, 10, 0);
+        PostSummary p1 = new PostSummary(1L, "A", "a", 1, 0L, now);
+        PostSummary p3 = new PostSummary(3L, "C", "c", 0, 0L, now);
+        when(searchIndex.search("spring", 20, 10)).thenReturn(new PostSearchIndex.Hits(List.of(3L, 2L, 1L), 23));
+        when(postRepository.findSummariesByIds(List.of(3L, 2L, 1L))).thenReturn(List.of(p1, p3));
+        likeCounter.add(1L, 1);
+
+        SearchPage<PostSummary> page = postService.searchPosts("spring", 2, 10);
+
+        assertEquals(List.of(3L, 1L), page.items().stream().map(PostSummary::id).toList());
+        assertEquals(2, page.items().get(1).likes());
+        assertEquals(23, page.totalHits());
+        assertFalse(page.hasMore());
+    }
+
+    @Test
+    void testSearchPosts_NoHitsSkipsDatabase() {
+        when(searchIndex.search("nothing", 0, 20)).thenReturn(new PostSearchIndex.Hits(List.of(), 0));
+
+        assertTrue(postService.searchPosts("nothing", 0, 20).items().isEmpty());
+        verify(postRepository, never()).findSummariesByIds(any());
+    }
+
+    @Test
+    void testSearchPosts_InvalidArgumentsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> postService.searchPosts(" ", 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> postService.searchPosts("q", -1, 10));
+        assertThrows(IllegalArgumentException.class,
+                () -> postService.searchPosts("q", 0, PostService.MAX_PAGE_SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> postService.searchPosts("q", 10, 100));
+    }
+
+    // --------------------------------------------------------------------
+    // Get Post By ID
+    // --------------------------------------------------------------------
+    @Test
+    void testGetPostById_FetchesCommentsInOneQuery() {
+        Post post = new Post(1L, "Title", "Content");
+        post.addComment(new Comment(1L, post, "A", "C1"));
+        when(postRepository.findWithCommentsById(1L)).thenReturn(Optional.of(post));
+
+        Post result = postService.getPostById(1L);
+
+        assertEquals(1, result.getComments().size());
+        verify(postRepository, never()).findById(any());
+    }
+
+    @Test
+    void testGetPostById_ServedFromCacheOnRepeatedReads() {
+        Post post = new Post(1L, "Title", "Content");
+        post.setLikes(5);
+        when(postRepository.findWithCommentsById(1L)).thenReturn(Optional.of(post));
+        likeCounter.add(1L, 2);
+
+        Post first = postService.getPostById(1L);
+        Post second = postService.getPostById(1L);
+
+        assertEquals(7, second.getLikes());
+        assertEquals(5, post.getLikes()); // cached instance keeps the persisted count
+        assertNotSame(first, post);
+        verify(postRepository, times(1)).findWithCommentsById(1L);
+    }
+
+    @Test
+    void testUpdatePost_InvalidatesCachedPost() {
+        Post existing = new Post(1L, "Old Title", "Old Content");
+        when(postRepository.findWithCommentsById(1L)).thenReturn(Optional.of(existing));
+        when(postRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(postRepository.save(any(Post.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        postService.getPostById(1L);
+        postService.updatePost(1L, new Post(1L, "New Title", "New Content"));
+        postService.getPostById(1L);
+
+        verify(postRepository, times(2)).findWithCommentsById(1L);
+    }
+
+    @Test
+    void testGetPostById_DeletedThrows() {
+        Post post = new Post(2L, "Title", "Content");
+        // The SQL restriction hides the row once it is soft-deleted
+        when(postRepository.findWithCommentsById(2L)).thenReturn(Optional.of(post)).thenReturn(Optional.empty());
+        when(postRepository.softDelete(eq(2L), any(LocalDateTime.class))).thenReturn(1);
+
+        postService.getPostById(2L);
+        postService.deletePost(2L);
+
+        assertThrows(IllegalArgumentException.class, () -> postService.getPostById(2L));
     }
 
     // --------------------------------------------------------------------
@@ -105,40 +283,100 @@ public class PostServiceTest {
         assertThrows(IllegalArgumentException.class, () -> postService.updatePost(1L, update));
     }
 
+    @Test
+    void testUpdatePost_IfMatchVersionMismatchFailsBeforeWriting() {
+        Post existing = new Post(1L, "Old Title", "Old Content");
+        existing.setVersion(3L);
+        when(postRepository.findById(1L)).thenReturn(Optional.of(existing));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> postService.updatePost(1L, new Post(1L, "New", "New"), Set.of(2L)));
+        verify(postRepository, never()).save(any());
+    }
+
+    @Test
+    void testUpdatePost_IfMatchCurrentVersionUpdates() {
+        Post existing = new Post(1L, "Old Title", "Old Content");
+        existing.setVersion(3L);
+        when(postRepository.findById(1L)).thenReturn(Optional.of(existing));
+        when(postRepository.save(any(Post.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Post result = postService.updatePost(1L, new Post(1L, "New", "New"), Set.of(2L, 3L));
+
+        assertEquals("New", result.getTitle());
+    }
+
+    @Test
+    void testUpdatePost_ConcurrentWriteMapsToPreconditionOrConflict() {
+        when(postRepository.findById(1L)).thenAnswer(inv -> {
+            Post existing = new Post(1L, "Old Title", "Old Content");
+            existing.setVersion(3L);
+            return Optional.of(existing);
+        });
+        when(postRepository.save(any(Post.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Post.class, 1L));
+
+        assertThrows(PreconditionFailedException.class,
+                () -> postService.updatePost(1L, new Post(1L, "New", "New"), Set.of(3L)));
+        assertThrows(ConflictException.class,
+                () -> postService.updatePost(1L, new Post(1L, "New", "New")));
+    }
+
     // --------------------------------------------------------------------
-    // Delete Post + Comment Cleanup Tests
+    // Post Version (validator for conditional GETs)
     // --------------------------------------------------------------------
     @Test
-    void testDeletePost_WithComments_Success() {
+    void testGetPostVersion_UsesCachedPostWithoutQuerying() {
         Post post = new Post(1L, "Title", "Content");
-        List<Comment> comments = Arrays.asList(
-                new Comment(1L, post, "A", "C1"),
-                new Comment(2L, post, "B", "C2")
-        );
+        post.setVersion(4L);
+        post.setLikes(5);
+        when(postRepository.findWithCommentsById(1L)).thenReturn(Optional.of(post));
+        postService.getPostById(1L);
+        likeCounter.add(1L, 2);
 
-        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
-        when(commentRepository.findByPost(post)).thenReturn(comments);
+        PostVersion version = postService.getPostVersion(1L).orElseThrow();
 
-        boolean deleted = postService.deletePost(1L);
+        assertEquals(4L, version.version());
+        assertEquals(7, version.likes());
+        verify(postRepository, never()).findVersionById(any());
+    }
 
-        assertTrue(deleted);
-        verify(commentRepository, times(1)).findByPost(post);
-        verify(commentRepository, times(1)).deleteAll(comments);
-        verify(postRepository, times(1)).delete(post);
+    @Test
+    void testGetPostVersion_FallsBackToProjectionOnCacheMiss() {
+        when(postRepository.findVersionById(1L)).thenReturn(Optional.of(new PostVersion(1L, 2L, 5, 1L, 3L)));
+        likeCounter.add(1L, 1);
+
+        PostVersion version = postService.getPostVersion(1L).orElseThrow();
+
+        assertEquals(new PostVersion(1L, 2L, 6, 1L, 3L), version);
+        verify(postRepository, never()).findWithCommentsById(any());
+        assertTrue(postService.getPostVersion(9L).isEmpty());
     }
 
+    // --------------------------------------------------------------------
+    // Delete Post (soft delete; comments are purged later)
+    // --------------------------------------------------------------------
     @Test
-    void testDeletePost_NoComments_Success() {
-        Post post = new Post(2L, "T", "C");
-        when(postRepository.findById(2L)).thenReturn(Optional.of(post));
-        when(commentRepository.findByPost(post)).thenReturn(Collections.emptyList());
+    void testDeletePost_IsASingleSoftDeleteUpdate() {
+        when(postRepository.softDelete(eq(1L), any(LocalDateTime.class))).thenReturn(1);
 
-        boolean deleted = postService.deletePost(2L);
+        boolean deleted = postService.deletePost(1L);
 
         assertTrue(deleted);
-        verify(commentRepository, times(1)).findByPost(post);
-        verify(commentRepository, never()).deleteAll(anyList());
-        verify(postRepository, times(1)).delete(post);
+        verify(postRepository, times(1)).softDelete(eq(1L), any(LocalDateTime.class));
+        verify(postRepository, never()).deleteByIdInBulk(any());
+        verify(postRepository, never()).findById(any());
+        verify(leaderboard).remove(1L);
+        verify(searchIndex).remove(1L);
+    }
+
+    @Test
+    void testDeletePost_AlreadyDeletedReturnsFalse() {
+        when(postRepository.softDelete(eq(2L), any(LocalDateTime.class))).thenReturn(1, 0);
+
+        assertTrue(postService.deletePost(2L));
+        assertFalse(postService.deletePost(2L));
+        verify(leaderboard, times(1)).remove(2L);
     }
 
     @Test
@@ -148,10 +386,11 @@ public class PostServiceTest {
 
     @Test
     void testDeletePost_PostNotFound_ReturnsFalse() {
-        when(postRepository.findById(99L)).thenReturn(Optional.empty());
+        when(postRepository.softDelete(eq(99L), any(LocalDateTime.class))).thenReturn(0);
         boolean result = postService.deletePost(99L);
         assertFalse(result);
-        verify(postRepository, times(1)).findById(99L);
+        verify(postRepository, times(1)).softDelete(eq(99L), any(LocalDateTime.class));
+        verify(leaderboard, never()).remove(any());
     }
 
     // --------------------------------------------------------------------
@@ -159,44 +398,62 @@ public class PostServiceTest {
     // --------------------------------------------------------------------
     @Test
     void testLikePost() {
-        Post post = new Post(1L, "Title", "Content");
-        post.setLikes(0);
-
-        when(postRepository.findById(1L)).thenReturn(Optional.of(post));
-        when(postRepository.save(any(Post.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(postRepository.findRankingEntryById(1L)).thenReturn(Optional.of(new TopPost(1L, "Title", 0)));
 
-        Post likedPost = postService.likePost(1L);
+        long likes = postService.likePost(1L);
 
-        assertEquals(1, likedPost.getLikes());
-        verify(postRepository, times(1)).save(post);
+        assertEquals(1, likes);
+        assertEquals(1, likeCounter.pendingDelta(1L));
+        verify(leaderboard).update(1L, "Title", 1L);
+        verify(postRepository, never()).save(any());
     }
 
     @Test
     void testUnlikePost_WhenLikesGreaterThanZero() {
-        Post post = new Post(2L, "Title", "Content");
-        post.setLikes(3);
-
-        when(postRepository.findById(2L)).thenReturn(Optional.of(post));
-        when(postRepository.save(any(Post.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(postRepository.findRankingEntryById(2L)).thenReturn(Optional.of(new TopPost(2L, "Title", 3)));
 
-        Post unlikedPost = postService.unlikePost(2L);
+        long likes = postService.unlikePost(2L);
 
-        assertEquals(2, unlikedPost.getLikes());
-        verify(postRepository, times(1)).save(post);
+        assertEquals(2, likes);
+        assertEquals(-1, likeCounter.pendingDelta(2L));
+        verify(postRepository, never()).save(any());
     }
 
     @Test
     void testUnlikePost_WhenLikesZero_DoesNotGoNegative() {
-        Post post = new Post(3L, "Title", "Content");
-        post.setLikes(0);
+        when(postRepository.findRankingEntryById(3L)).thenReturn(Optional.of(new TopPost(3L, "Title", 0)));
 
-        when(postRepository.findById(3L)).thenReturn(Optional.of(post));
-        when(postRepository.save(any(Post.class))).thenAnswer(inv -> inv.getArgument(0));
+        long likes = postService.unlikePost(3L);
 
-        Post result = postService.unlikePost(3L);
+        assertEquals(0, likes);
+        assertEquals(0, likeCounter.pendingDelta(3L));
+        verify(postRepository, never()).save(any());
+    }
 
-        assertEquals(0, result.getLikes());
-        verify(postRepository, times(1)).save(post);
+    @Test
+    void testLikePost_CachedPostAnswersWithoutQuery() {
+        Post post = new Post(5L, "Cached", "Content");
+        post.setLikes(4);
+        when(postRepository.findWithCommentsById(5L)).thenReturn(Optional.of(post));
+        postService.getPostById(5L);
+
+        assertEquals(5, postService.likePost(5L));
+        verify(leaderboard).update(5L, "Cached", 5L);
+        verify(postRepository, never()).findRankingEntryById(any());
+        verify(postRepository, times(1)).findWithCommentsById(5L);
+    }
+
+    @Test
+    void testLikePost_DeletedPostThrows() {
+        Post post = new Post(4L, "Title", "Content");
+        when(postRepository.findWithCommentsById(4L)).thenReturn(Optional.of(post)).thenReturn(Optional.empty());
+        when(postRepository.softDelete(eq(4L), any(LocalDateTime.class))).thenReturn(1);
+
+        postService.getPostById(4L);
+        postService.deletePost(4L);
+
+        assertThrows(IllegalArgumentException.class, () -> postService.likePost(4L));
+        assertEquals(0, likeCounter.pendingDelta(4L));
     }
 
     // --------------------------------------------------------------------
@@ -204,83 +461,67 @@ public class PostServiceTest {
     // --------------------------------------------------------------------
     @Test
     void testGetTopLikedPosts() {
-        List<Post> topLiked = Arrays.asList(
-                new Post(1L, "Most Liked", "Content"),
-                new Post(2L, "Second", "Content")
+        List<TopPost> topLiked = Arrays.asList(
+                new TopPost(1L, "Most Liked", 10),
+                new TopPost(2L, "Second", 5)
         );
 
-        when(postRepository.findTopLikedPosts()).thenReturn(topLiked);
+        when(leaderboard.capacity()).thenReturn(100);
+        when(leaderboard.top(2)).thenReturn(topLiked);
 
-        List<Post> result = postService.getTopLikedPosts();
+        List<TopPost> result = postService.getTopLikedPosts(2);
 
         assertEquals(2, result.size());
-        assertEquals("Most Liked", result.get(0).getTitle());
-        verify(postRepository, times(1)).findTopLikedPosts();
+        assertEquals("Most Liked", result.get(0).title());
+        verifyNoInteractions(postRepository);
     }
 
-    // --------------------------------------------------------------------
-    // F2P Test: Failure during Comment Deletion rolls back post delete
-    // --------------------------------------------------------------------
     @Test
-    void testDeletePost_CommentDeletionFails_ShouldRollback() {
-        Post post = new Post(5L, "Rollback", "Test");
-        List<Comment> comments = Arrays.asList(new Comment(10L, post, "A", "Bad"));
-
-        when(postRepository.findById(5L)).thenReturn(Optional.of(post));
-        when(commentRepository.findByPost(post)).thenReturn(comments);
-        doThrow(new RuntimeException("DB failure")).when(commentRepository).deleteAll(comments);
-
-        assertThrows(RuntimeException.class, () -> postService.deletePost(5L));
-
-        // ensure post is NOT deleted due to rollback
-        verify(postRepository, never()).delete(post);
+    void testGetTopLikedPosts_LimitOutOfRangeThrows() {
+        when(leaderboard.capacity()).thenReturn(100);
+        assertThrows(IllegalArgumentException.class, () -> postService.getTopLikedPosts(0));
+        assertThrows(IllegalArgumentException.class, () -> postService.getTopLikedPosts(101));
     }
-    
-    
+
     @Test
     void testLikePost_PostNotFound_ThrowsException() {
-        when(postRepository.findById(100L)).thenReturn(Optional.empty());
+        when(postRepository.findRankingEntryById(100L)).thenReturn(Optional.empty());
 
         assertThrows(IllegalArgumentException.class, () -> postService.likePost(100L));
-        verify(postRepository, times(1)).findById(100L);
+        verify(postRepository, times(1)).findRankingEntryById(100L);
+        verify(postRepository, never()).findWithCommentsById(any());
         verify(postRepository, never()).save(any());
     }
 
     @Test
     void testUnlikePost_PostNotFound_ThrowsException() {
-        when(postRepository.findById(200L)).thenReturn(Optional.empty());
+        when(postRepository.findRankingEntryById(200L)).thenReturn(Optional.empty());
 
         assertThrows(IllegalArgumentException.class, () -> postService.unlikePost(200L));
-        verify(postRepository, times(1)).findById(200L);
+        verify(postRepository, times(1)).findRankingEntryById(200L);
+        verify(postRepository, never()).findWithCommentsById(any());
         verify(postRepository, never()).save(any());
     }
 
     @Test
-    void testDeletePost_WhenCommentListIsNull_ShouldHandleGracefully() {
-        Post post = new Post(7L, "Null Comment Case", "Content");
-        when(postRepository.findById(7L)).thenReturn(Optional.of(post));
-        when(commentRepository.findByPost(post)).thenReturn(null); // simulate null instead of empty list
-
-        boolean deleted = postService.deletePost(7L);
+    void testDeletePost_PendingLikesAreDiscarded() {
+        likeCounter.add(7L, 3);
+        when(postRepository.softDelete(eq(7L), any(LocalDateTime.class))).thenReturn(1);
 
-        assertTrue(deleted);
-        verify(commentRepository, times(1)).findByPost(post);
-        verify(postRepository, times(1)).delete(post);
+        assertTrue(postService.deletePost(7L));
+        assertEquals(0, likeCounter.pendingDelta(7L));
     }
 
     @Test
     void testLikeAndUnlike_SequenceFlow() {
-        Post post = new Post(8L, "Seq", "Flow");
-        post.setLikes(0);
-
-        when(postRepository.findById(8L)).thenReturn(Optional.of(post));
-        when(postRepository.save(any(Post.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(postRepository.findRankingEntryById(8L)).thenReturn(Optional.of(new TopPost(8L, "Seq", 0)));
 
         postService.likePost(8L);
         postService.likePost(8L);
-        postService.unlikePost(8L);
+        long likes = postService.unlikePost(8L);
 
-        assertEquals(1, post.getLikes()); // 0 -> 1 -> 2 -> 1
-        verify(postRepository, atLeast(3)).save(post);
+        assertEquals(1, likes); // 0 -> 1 -> 2 -> 1
+        assertEquals(1, likeCounter.pendingDelta(8L));
+        verify(postRepository, never()).save(any());
     }
 }
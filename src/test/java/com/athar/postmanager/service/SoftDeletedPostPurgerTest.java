@@ -0,0 +1,84 @@
+package com.athar.postmanager.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class SoftDeletedPostPurgerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PostDeletionService postDeletion;
+
+    @Mock
+    private JobLeaseService leases;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SoftDeletedPostPurger purger;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        purger = new SoftDeletedPostPurger(jdbcTemplate, postDeletion, leases, meterRegistry,
+                Duration.ofDays(7), 2, Duration.ZERO, Duration.ofMinutes(10));
+        when(leases.tryAcquire(eq(SoftDeletedPostPurger.LEASE_NAME), any())).thenReturn(true);
+        when(leases.renew(eq(SoftDeletedPostPurger.LEASE_NAME), any())).thenReturn(true);
+    }
+
+    @Test
+    void testPurge_WalksExpiredPostsInBatchesAndSkipsFailures() {
+        when(jdbcTemplate.queryForList(eq(SoftDeletedPostPurger.SELECT_SQL), eq(Long.class),
+                any(Timestamp.class), eq(0L), eq(2))).thenReturn(List.of(3L, 5L));
+        when(jdbcTemplate.queryForList(eq(SoftDeletedPostPurger.SELECT_SQL), eq(Long.class),
+                any(Timestamp.class), eq(5L), eq(2))).thenReturn(List.of(8L));
+        when(postDeletion.deleteWithComments(3L)).thenReturn(true);
+        when(postDeletion.deleteWithComments(5L)).thenThrow(new RuntimeException("lock wait timeout"));
+        when(postDeletion.deleteWithComments(8L)).thenReturn(true);
+
+        LocalDateTime before = LocalDateTime.now().minusDays(7);
+        assertEquals(2, purger.purge());
+
+        verify(jdbcTemplate).queryForList(eq(SoftDeletedPostPurger.SELECT_SQL), eq(Long.class),
+                argThat((Timestamp cutoff) -> !cutoff.toLocalDateTime().isBefore(before)), eq(0L), eq(2));
+        verify(leases).renew(eq(SoftDeletedPostPurger.LEASE_NAME), any());
+        verify(leases).release(SoftDeletedPostPurger.LEASE_NAME);
+        assertEquals(2.0, meterRegistry.get("posts.purged").counter().count());
+        assertEquals(1.0, meterRegistry.get("posts.purge.failures").counter().count());
+    }
+
+    @Test
+    void testPurge_SkipsWhenAnotherNodeHoldsTheLease() {
+        when(leases.tryAcquire(eq(SoftDeletedPostPurger.LEASE_NAME), any())).thenReturn(false);
+
+        assertEquals(-1, purger.purge());
+
+        verifyNoInteractions(jdbcTemplate, postDeletion);
+    }
+
+    @Test
+    void testPurge_StopsWhenTheLeaseIsLost() {
+        when(jdbcTemplate.queryForList(eq(SoftDeletedPostPurger.SELECT_SQL), eq(Long.class),
+                any(Timestamp.class), anyLong(), eq(2))).thenReturn(List.of(1L, 2L));
+        when(postDeletion.deleteWithComments(anyLong())).thenReturn(true);
+        when(leases.renew(eq(SoftDeletedPostPurger.LEASE_NAME), any())).thenReturn(false);
+
+        assertEquals(2, purger.purge());
+
+        verify(jdbcTemplate, times(1)).queryForList(eq(SoftDeletedPostPurger.SELECT_SQL), eq(Long.class),
+                any(Timestamp.class), anyLong(), eq(2));
+    }
+}
@@ -0,0 +1,144 @@
+package com.athar.postmanager.service;
+
+import com.athar.postmanager.dto.TopPost;
+import com.athar.postmanager.repository.PostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+public class TopLikedLeaderboardTest {
+
+    @Mock
+    private PostRepository postRepository;
+
+    private TopLikedLeaderboard leaderboard;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        LikeCounterService likeCounter =
+                new LikeCounterService(mock(JdbcTemplate.class), mock(PlatformTransactionManager.class),
+                        mock(PostCache.class), 500);
+        leaderboard = new TopLikedLeaderboard(postRepository, likeCounter, 3);
+    }
+
+    @Test
+    void testSeed_UsesLimitedQuery() {
+        when(postRepository.findTopLikedPosts(any(Pageable.class)))
+                .thenReturn(Arrays.asList(new TopPost(1L, "A", 9), new TopPost(2L, "B", 4)));
+
+        leaderboard.seed();
+
+        verify(postRepository).findTopLikedPosts(argThat(p -> p.getPageSize() == 3));
+        List<TopPost> top = leaderboard.top(10);
+        assertEquals(2, top.size());
+        assertEquals(1L, top.get(0).id());
+        assertEquals(9, top.get(0).likes());
+    }
+
+    @Test
+    void testUpdate_KeepsOnlyTopKInOrder() {
+        leaderboard.update(1L, "A", 5);
+        leaderboard.update(2L, "B", 7);
+        leaderboard.update(3L, "C", 1);
+        leaderboard.update(4L, "D", 6);   // evicts C
+        leaderboard.update(5L, "E", 0);   // does not make the cut
+
+        List<TopPost> top = leaderboard.top(3);
+        assertEquals(List.of(2L, 4L, 1L), top.stream().map(TopPost::id).toList());
+    }
+
+    @Test
+    void testUpdate_ExistingEntryIsReRanked() {
+        leaderboard.update(1L, "A", 5);
+        leaderboard.update(2L, "B", 7);
+        leaderboard.update(1L, "A", 8);
+
+        List<TopPost> top = leaderboard.top(2);
+        assertEquals(1L, top.get(0).id());
+        assertEquals(8, top.get(0).likes());
+        assertEquals(2, leaderboard.top(10).size());
+    }
+
+    @Test
+    void testRemoveAndRename() {
+        leaderboard.update(1L, "A", 5);
+        leaderboard.update(2L, "B", 7);
+
+        leaderboard.rename(1L, "A2");
+        leaderboard.remove(2L);
+
+        List<TopPost> top = leaderboard.top(10);
+        assertEquals(1, top.size());
+        assertEquals("A2", top.get(0).title());
+    }
+
+    @Test
+    void testTop_ReadsDoNotHitDatabase() {
+        leaderboard.update(1L, "A", 5);
+        leaderboard.top(1);
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void testReseed_ReadersKeepSeeingTheFullBoardUntilTheSwap() {
+        LikeCounterService likeCounter = mock(LikeCounterService.class);
+        leaderboard = new TopLikedLeaderboard(postRepository, likeCounter, 3);
+        leaderboard.update(1L, "A", 5);
+        leaderboard.update(2L, "B", 7);
+
+        when(postRepository.findTopLikedPosts(any(Pageable.class))).thenReturn(List.of(new TopPost(3L, "C", 9)));
+        List<Integer> sizesDuringReseed = new ArrayList<>();
+        when(likeCounter.effectiveLikes(eq(3L), any())).thenAnswer(inv -> {
+            sizesDuringReseed.add(leaderboard.top(10).size());
+            return 9L;
+        });
+
+        leaderboard.reseed();
+
+        assertEquals(List.of(2), sizesDuringReseed);
+        assertEquals(List.of(3L), leaderboard.top(10).stream().map(TopPost::id).toList());
+        leaderboard.update(4L, "D", 1);
+        assertEquals(List.of(3L, 4L), leaderboard.top(10).stream().map(TopPost::id).toList());
+    }
+
+    @Test
+    void testReseed_ReplaysRemovalsAndUpdatesMadeWhileBuilding() {
+        LikeCounterService likeCounter = mock(LikeCounterService.class);
+        leaderboard = new TopLikedLeaderboard(postRepository, likeCounter, 3);
+
+        // The query still sees post 3 (and a stale like count for 1) when it runs
+        when(postRepository.findTopLikedPosts(any(Pageable.class)))
+                .thenReturn(List.of(new TopPost(3L, "C", 9), new TopPost(1L, "A", 5)));
+        when(likeCounter.effectiveLikes(eq(1L), any())).thenReturn(5L);
+        when(likeCounter.effectiveLikes(eq(3L), any())).thenAnswer(inv -> {
+            // Soft-deleted and liked while the new board is being built
+            leaderboard.remove(3L);
+            leaderboard.update(1L, "A", 12);
+            return 9L;
+        });
+
+        leaderboard.reseed();
+
+        List<TopPost> top = leaderboard.top(10);
+        assertEquals(List.of(1L), top.stream().map(TopPost::id).toList());
+        assertEquals(12, top.get(0).likes());
+
+        // Changes after the swap go straight to the board and are no longer recorded
+        leaderboard.remove(1L);
+        assertTrue(leaderboard.top(10).isEmpty());
+    }
+}
@@ -0,0 +1,92 @@
+package com.athar.postmanager.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class UsernameFilterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    @Test
+    void testNotReady_EverythingMightBeTaken() {
+        UsernameFilter filter = new UsernameFilter(jdbcTemplate, 1000, 0.01);
+
+        assertFalse(filter.isReady());
+        assertTrue(filter.mightBeTaken("anyone"));
+    }
+
+    @Test
+    void testRebuild_LoadsExistingUsernamesCaseInsensitively() throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString(1)).thenReturn("Athar", "bob");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        UsernameFilter filter = new UsernameFilter(jdbcTemplate, 1000, 0.01);
+
+        filter.rebuild();
+
+        assertTrue(filter.isReady());
+        assertTrue(filter.mightBeTaken("athar"));
+        assertTrue(filter.mightBeTaken("BOB"));
+        assertFalse(filter.mightBeTaken("carol"));
+    }
+
+    @Test
+    void testAdd_VisibleAfterBuild() {
+        UsernameFilter filter = new UsernameFilter(jdbcTemplate, 1000, 0.01);
+        filter.rebuild();
+
+        filter.add("newcomer");
+
+        assertTrue(filter.mightBeTaken("newcomer"));
+    }
+
+    @Test
+    void testNormalize_FoldsAccentsAndCaseLikeTheCollation() {
+        assertEquals(UsernameFilter.normalize("jose"), UsernameFilter.normalize("José"));
+        assertEquals(UsernameFilter.normalize("ANGSTROM"), UsernameFilter.normalize("Ångström"));
+        assertEquals(UsernameFilter.normalize("strasse"), UsernameFilter.normalize("Straße"));
+        assertNotEquals(UsernameFilter.normalize("jose"), UsernameFilter.normalize("josé "));
+    }
+
+    @Test
+    void testAdd_AccentedVariantIsMaybeTaken() {
+        UsernameFilter filter = new UsernameFilter(jdbcTemplate, 1000, 0.01);
+        filter.rebuild();
+
+        filter.add("José");
+
+        assertTrue(filter.mightBeTaken("jose"));
+        assertTrue(filter.mightBeTaken("JOSE"));
+    }
+
+    @Test
+    void testBits_NoFalseNegativesAndBoundedFalsePositives() {
+        UsernameFilter.Bits bits = new UsernameFilter.Bits(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            bits.put("user" + i);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(bits.mightContain("user" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (bits.mightContain("other" + i)) falsePositives++;
+        }
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}